@@ -0,0 +1,73 @@
+package com.example.benchmark;
+
+import com.example.model.LatestRates;
+import com.example.service.RateJsonExtractor;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Currency;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ===== RateJsonExtractionBenchmark クラス =====
+ * 外部APIの応答（約160通貨）の読み取り方法を比較するベンチマーク
+ *   - treeParse: 文字列にしてから JsonParser.parseString で JsonObject のツリーを作る（従来の方法）
+ *   - streaming: RateJsonExtractor でストリームから必要な通貨だけを読み取る
+ *
+ * 実行方法（-prof gc 相当の割り当て量 gc.alloc.rate.norm も出力される）:
+ *   ./gradlew jmh -Pjmh.includes=RateJsonExtractionBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class RateJsonExtractionBenchmark {
+
+    private byte[] payload;
+
+    @Setup
+    public void setUp() {
+        // 実際の応答と同じ形で、約160通貨分のJSONを作る
+        StringBuilder json = new StringBuilder();
+        json.append("{\"provider\":\"https://www.exchangerate-api.com\",\"base\":\"JPY\",")
+            .append("\"date\":\"2026-01-18\",\"time_last_updated\":1768694400,\"rates\":{\"JPY\":1");
+        Iterator<Currency> currencies = Currency.getAvailableCurrencies().iterator();
+        for (int i = 0; i < 160 && currencies.hasNext(); i++) {
+            String code = currencies.next().getCurrencyCode();
+            if (!code.equals("JPY")) {
+                json.append(",\"").append(code).append("\":").append(0.001 * (i + 1));
+            }
+        }
+        json.append("}}");
+        payload = json.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public Map<String, Double> treeParse() {
+        String response = new String(payload, StandardCharsets.UTF_8);
+        JsonObject ratesObj = JsonParser.parseString(response).getAsJsonObject().getAsJsonObject("rates");
+        Map<String, Double> rates = new HashMap<>();
+        for (Map.Entry<String, JsonElement> entry : ratesObj.entrySet()) {
+            rates.put(entry.getKey(), entry.getValue().getAsDouble());
+        }
+        return rates;
+    }
+
+    @Benchmark
+    public LatestRates streaming() throws IOException {
+        return RateJsonExtractor.extract(new ByteArrayInputStream(payload), "JPY");
+    }
+}
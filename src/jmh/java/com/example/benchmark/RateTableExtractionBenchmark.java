@@ -0,0 +1,74 @@
+package com.example.benchmark;
+
+import com.example.scraping.RateTableScanner;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.jsoup.select.Elements;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ===== RateTableExtractionBenchmark クラス =====
+ * 為替レート表（exchange-rates.html と同じ形）から通貨とレートを取り出す方法を比較するベンチマーク
+ *   - jsoupDom: Jsoup.parse でDOMを作り、"table tr" と "td" のセレクタで取り出す（従来の方法）
+ *   - streaming: RateTableScanner でHTMLを先頭から読むだけで取り出す
+ * 行数は実際の表と同じ5行と、10万行の大きな表で比較する
+ *
+ * 実行方法:
+ *   ./gradlew jmh -Pjmh.includes=RateTableExtractionBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class RateTableExtractionBenchmark {
+
+    @Param({"5", "100000"})
+    public int rows;
+
+    private String html;
+
+    @Setup
+    public void setUp() {
+        StringBuilder sheet = new StringBuilder();
+        sheet.append("<!DOCTYPE html>\n<html>\n<head>\n<meta charset=\"UTF-8\">\n<title>為替レート API</title>\n</head>\n")
+             .append("<body>\n<div id=\"exchange-container\">\n<h2>為替レート情報</h2>\n<table border=\"1\">\n")
+             .append("<tr>\n<th>通貨</th>\n<th>レート（JPY）</th>\n</tr>\n");
+        for (int i = 0; i < rows; i++) {
+            sheet.append("<tr>\n<td>C").append(i % 1000).append("</td>\n<td class=\"rate\">")
+                 .append(100 + i % 97).append('.').append(i % 100).append("</td>\n</tr>\n");
+        }
+        sheet.append("</table>\n</div>\n</body>\n</html>\n");
+        html = sheet.toString();
+    }
+
+    @Benchmark
+    public int jsoupDom() {
+        Document doc = Jsoup.parse(html);
+        Elements currencies = doc.select("table tr");
+        int found = 0;
+        for (int i = 1; i < currencies.size(); i++) {
+            Element row = currencies.get(i);
+            Elements cells = row.select("td");
+            if (cells.size() == 2) {
+                found += cells.get(0).text().length() + cells.get(1).text().length();
+            }
+        }
+        return found;
+    }
+
+    @Benchmark
+    public int streaming() {
+        int[] found = new int[1];
+        RateTableScanner.scan(html, (currency, rate) -> found[0] += currency.length() + rate.length());
+        return found[0];
+    }
+}
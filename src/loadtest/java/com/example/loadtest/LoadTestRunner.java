@@ -0,0 +1,330 @@
+package com.example.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * ===== LoadTestRunner クラス =====
+ * アプリの各画面・APIに、一定のリクエスト数/秒（RPS）で負荷をかけて性能を測るツール
+ * 応答を待たずに決まった間隔でリクエストを送る（オープンモデル）ため、
+ * レイテンシは「本来送るはずだった時刻」から測る（アプリが遅くなった分も正しく計上される）
+ *
+ * 実行方法（アプリとスタブサーバーを起動してから）:
+ *   ./gradlew upstreamStub
+ *   ./gradlew bootRun --args='--spring.profiles.active=loadtest'
+ *   ./gradlew loadTest --args="--rps=200 --duration=30s"
+ *
+ * 引数:
+ *   --target    アプリのURL（既定 http://localhost:8080）
+ *   --rps       1秒あたりのリクエスト数（全パスの合計、既定 100）
+ *   --duration  試験時間（既定 30s）
+ *   --paths     カンマ区切りのパス（既定 /,/exchange,/api/exchange-history?base=USD）
+ *
+ * 結果として、パスごとのスループットと p50/p99/p999 レイテンシ、
+ * 試験中のアプリのスレッド数（/actuator/metrics/jvm.threads.live）を出力する
+ *
+ * 同時実行数を段階的に増やす試験（--concurrency を指定した場合）:
+ *   外部APIの応答を遅くし、キャッシュがすぐ切れるようにして、仮想スレッドを使わずに起動してから実行する
+ *   （jvm.threads.live は仮想スレッドを数えないため、仮想スレッドのままでは同期APIでもスレッド数が増えない）
+ *   ./gradlew upstreamStub --args="--latency-ms=3000"
+ *   ./gradlew bootRun --args='--spring.profiles.active=loadtest,loadtest-platform --exchange.cache.ttl=1s'
+ *   ./gradlew loadTest --args="--concurrency=100,1000,5000"
+ *
+ *   段階ごとに、指定した数のリクエストを一斉に送り、全て外部APIの応答待ちになっている間の
+ *   アプリのスレッド数（jvm.threads.live）と、処理中の Tomcat のスレッド数（tomcat.threads.busy）の最大値を測る
+ *   同期の画面（/exchange）は応答待ちの間もリクエストのスレッドを使い続け、
+ *   非同期API（/api/exchange-latest）はスレッドを解放するので、同時リクエスト数を増やした時の差を比べられる
+ *   --concurrency  カンマ区切りの同時リクエスト数（各段階で一斉に送る数）
+ *   --paths        カンマ区切りの比べるパス（既定 /exchange,/api/exchange-latest?base=USD）
+ *   --pause        段階の間に待つ時間（キャッシュが切れるのを待つ、既定 3s）
+ */
+public final class LoadTestRunner {
+
+    private static final Pattern METRIC_VALUE = Pattern.compile("\"value\"\\s*:\\s*([0-9.]+)");
+
+    private LoadTestRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = new LoadTestOptions(args);
+        if (options.string("concurrency", null) != null) {
+            runConcurrencySweep(options);
+            return;
+        }
+        String target = options.string("target", "http://localhost:8080");
+        int rps = options.integer("rps", 100);
+        Duration duration = options.duration("duration", Duration.ofSeconds(30));
+        List<String> paths = List.of(options.string("paths", "/,/exchange,/api/exchange-history?base=USD").split(","));
+
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        Map<String, LatencyRecorder> recorders = new LinkedHashMap<>();
+        for (String path : paths) {
+            recorders.put(path, new LatencyRecorder());
+        }
+
+        System.out.printf("Load test: target=%s rps=%d duration=%s paths=%s%n", target, rps, duration, paths);
+        MetricSampler threads = new MetricSampler(client, target, "jvm.threads.live");
+        threads.start();
+
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / rps;
+        long total = duration.toSeconds() * rps;
+        long startNanos = System.nanoTime();
+        try (ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long i = 0; i < total; i++) {
+                long scheduledNanos = startNanos + i * intervalNanos;
+                LockSupport.parkNanos(scheduledNanos - System.nanoTime());
+
+                String path = paths.get((int) (i % paths.size()));
+                LatencyRecorder recorder = recorders.get(path);
+                HttpRequest request = HttpRequest.newBuilder(URI.create(target + path))
+                        .timeout(Duration.ofSeconds(30))
+                        .GET()
+                        .build();
+                senders.submit(() -> {
+                    boolean ok;
+                    try {
+                        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                        ok = response.statusCode() < 400;
+                    } catch (Exception e) {
+                        ok = false;
+                    }
+                    recorder.record(System.nanoTime() - scheduledNanos, ok);
+                });
+            }
+        }
+        double elapsedSeconds = (System.nanoTime() - startNanos) / 1e9;
+        threads.stop();
+
+        System.out.printf("%n%-40s %9s %7s %10s %9s %9s %9s%n",
+                "path", "requests", "errors", "req/s", "p50(ms)", "p99(ms)", "p999(ms)");
+        for (Map.Entry<String, LatencyRecorder> entry : recorders.entrySet()) {
+            LatencyRecorder recorder = entry.getValue();
+            System.out.printf("%-40s %9d %7d %10.1f %9.2f %9.2f %9.2f%n",
+                    entry.getKey(), recorder.count(), recorder.errors(), recorder.count() / elapsedSeconds,
+                    recorder.percentileMillis(0.50), recorder.percentileMillis(0.99), recorder.percentileMillis(0.999));
+        }
+        if (threads.first() >= 0) {
+            System.out.printf("%nServer live threads: start=%d max=%d (jvm.threads.live)%n",
+                    threads.first(), threads.max());
+        }
+    }
+
+    /**
+     * 同時リクエスト数を段階的に増やし、段階ごとのアプリのスレッド数を出力する
+     * 各段階では指定数のリクエストを一斉に送り、全ての応答が返るまで待つ
+     * （外部APIの応答が遅いので、その間は全てのリクエストが応答待ちのまま同時に存在する）
+     */
+    private static void runConcurrencySweep(LoadTestOptions options) throws Exception {
+        String target = options.string("target", "http://localhost:8080");
+        List<String> paths = List.of(options.string("paths", "/exchange,/api/exchange-latest?base=USD").split(","));
+        Duration pause = options.duration("pause", Duration.ofSeconds(3));
+        int[] steps = Arrays.stream(options.string("concurrency", "").split(","))
+                .mapToInt(step -> Integer.parseInt(step.trim()))
+                .toArray();
+
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        System.out.printf("Concurrency sweep: target=%s paths=%s steps=%s%n", target, paths, Arrays.toString(steps));
+
+        MetricSampler live = new MetricSampler(client, target, "jvm.threads.live", Duration.ofMillis(200));
+        MetricSampler busy = new MetricSampler(client, target, "tomcat.threads.busy", Duration.ofMillis(200));
+        live.start();
+        busy.start();
+        // 負荷をかける前のスレッド数を1回分測る
+        LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(500));
+
+        System.out.printf("%n%-32s %12s %9s %7s %10s %9s %9s %13s %13s%n",
+                "path", "concurrency", "requests", "errors", "wall(ms)", "p50(ms)", "p99(ms)",
+                "live threads", "tomcat busy");
+        System.out.printf("%-32s %12s %9s %7s %10s %9s %9s %13d %13d%n",
+                "(idle)", "-", "-", "-", "-", "-", "-", live.max(), busy.max());
+        for (String path : paths) {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(target + path))
+                    .timeout(Duration.ofSeconds(60))
+                    .GET()
+                    .build();
+            for (int concurrency : steps) {
+                // 前の段階で取得したレートのキャッシュが切れるのを待つ
+                LockSupport.parkNanos(pause.toNanos());
+                live.reset();
+                busy.reset();
+                LatencyRecorder recorder = runStep(client, request, concurrency);
+                System.out.printf("%-32s %12d %9d %7d %10.0f %9.2f %9.2f %13d %13d%n",
+                        path, concurrency, recorder.count(), recorder.errors(), recorder.wallMillis(),
+                        recorder.percentileMillis(0.50), recorder.percentileMillis(0.99), live.max(), busy.max());
+            }
+        }
+        live.stop();
+        busy.stop();
+        if (busy.first() < 0) {
+            System.out.println("\n(tomcat busy: tomcat.threads.busy を取得できませんでした。"
+                    + "loadtest,loadtest-platform プロファイルで起動してください（仮想スレッドでは値が取れません）)");
+        }
+    }
+
+    /**
+     * 指定した数のリクエストを一斉に送り、全ての応答が返るまで待つ
+     */
+    private static LatencyRecorder runStep(HttpClient client, HttpRequest request, int concurrency) {
+        LatencyRecorder recorder = new LatencyRecorder();
+        long startNanos = System.nanoTime();
+        try (ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < concurrency; i++) {
+                senders.submit(() -> {
+                    boolean ok;
+                    try {
+                        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                        ok = response.statusCode() < 400;
+                    } catch (Exception e) {
+                        ok = false;
+                    }
+                    recorder.record(System.nanoTime() - startNanos, ok);
+                });
+            }
+        }
+        recorder.finish(System.nanoTime() - startNanos);
+        return recorder;
+    }
+
+    /**
+     * レイテンシ（ナノ秒）を記録し、パーセンタイルを計算する
+     */
+    private static final class LatencyRecorder {
+
+        private long[] latencies = new long[1024];
+        private int count;
+        private final AtomicInteger errors = new AtomicInteger();
+        private volatile long wallNanos;
+
+        synchronized void record(long nanos, boolean ok) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = nanos;
+            if (!ok) {
+                errors.incrementAndGet();
+            }
+        }
+
+        synchronized int count() {
+            return count;
+        }
+
+        int errors() {
+            return errors.get();
+        }
+
+        /**
+         * 全てのリクエストを送り終えて応答が返るまでの時間を記録する（同時実行数の試験で使う）
+         */
+        void finish(long nanos) {
+            wallNanos = nanos;
+        }
+
+        double wallMillis() {
+            return wallNanos / 1e6;
+        }
+
+        synchronized double percentileMillis(double percentile) {
+            if (count == 0) {
+                return Double.NaN;
+            }
+            long[] sorted = Arrays.copyOf(latencies, count);
+            Arrays.sort(sorted);
+            int index = (int) Math.min(count - 1, Math.ceil(percentile * count) - 1);
+            return sorted[Math.max(index, 0)] / 1e6;
+        }
+    }
+
+    /**
+     * 試験中、一定間隔（既定 1秒）でアプリのメトリクス（スレッド数など）を Actuator から取得する
+     * 非同期APIでは、同時リクエスト数が増えてもスレッド数がほぼ一定に保たれることを確認できる
+     */
+    private static final class MetricSampler {
+
+        private final HttpClient client;
+        private final HttpRequest request;
+        private final long intervalNanos;
+        private volatile boolean running = true;
+        private volatile int first = -1;
+        private volatile int max = -1;
+        private Thread thread;
+
+        MetricSampler(HttpClient client, String target, String metric) {
+            this(client, target, metric, Duration.ofSeconds(1));
+        }
+
+        MetricSampler(HttpClient client, String target, String metric, Duration interval) {
+            this.client = client;
+            this.request = HttpRequest.newBuilder(URI.create(target + "/actuator/metrics/" + metric))
+                    .timeout(Duration.ofSeconds(2))
+                    .build();
+            this.intervalNanos = interval.toNanos();
+        }
+
+        void start() {
+            thread = Thread.ofVirtual().start(() -> {
+                while (running) {
+                    sample();
+                    LockSupport.parkNanos(intervalNanos);
+                }
+            });
+        }
+
+        void stop() throws InterruptedException {
+            running = false;
+            thread.join();
+            sample();
+        }
+
+        /**
+         * 最大値を測り直す（同時実行数の段階ごとに呼ぶ）
+         */
+        void reset() {
+            max = -1;
+        }
+
+        int first() {
+            return first;
+        }
+
+        int max() {
+            return max;
+        }
+
+        private void sample() {
+            try {
+                String body = client.send(request, HttpResponse.BodyHandlers.ofString()).body();
+                Matcher matcher = METRIC_VALUE.matcher(body);
+                if (matcher.find()) {
+                    int value = (int) Double.parseDouble(matcher.group(1));
+                    if (first < 0) {
+                        first = value;
+                    }
+                    max = Math.max(max, value);
+                }
+            } catch (Exception e) {
+                // Actuator が無効な場合や、メトリクスがない場合は出力しない
+            }
+        }
+    }
+}
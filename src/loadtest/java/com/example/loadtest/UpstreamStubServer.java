@@ -0,0 +1,152 @@
+package com.example.loadtest;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Currency;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * ===== UpstreamStubServer クラス =====
+ * 負荷試験用に、外部API（exchangerate-api.com の /v4/latest/{base}）の代わりに応答するローカルサーバー
+ * ホーム画面でスクレイピングする為替レート表（/sheet）も返す
+ * 外部APIに負荷をかけずに、応答の遅延・エラー率・応答サイズを変えて試験できる
+ *
+ * 起動方法:
+ *   ./gradlew upstreamStub --args="--port=8089 --latency-ms=50 --error-rate=0.01 --currencies=160"
+ *
+ * 引数:
+ *   --port        待ち受けポート（既定 8089）
+ *   --latency-ms  応答までの遅延（既定 50ms）
+ *   --error-rate  HTTP 500 を返す割合（0〜1、既定 0）
+ *   --currencies  応答に含める通貨の数（応答サイズ、既定 160）
+ *   --sheet-rows  /sheet の為替レート表の行数（既定 5）
+ */
+public final class UpstreamStubServer {
+
+    private UpstreamStubServer() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        LoadTestOptions options = new LoadTestOptions(args);
+        int port = options.integer("port", 8089);
+        long latencyMs = options.integer("latency-ms", 50);
+        double errorRate = options.decimal("error-rate", 0.0);
+        List<String> codes = currencyCodes(options.integer("currencies", 160));
+        String sheet = rateSheetHtml(options.integer("sheet-rows", 5));
+        AtomicLong requests = new AtomicLong();
+
+        HttpServer server = HttpServer.create(new InetSocketAddress(port), 0);
+        // 遅延中の待ちでスレッドを占有しないよう、1リクエスト1仮想スレッドで処理する
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.createContext("/v4/latest/", exchange -> {
+            requests.incrementAndGet();
+            try {
+                sleep(latencyMs);
+                if (ThreadLocalRandom.current().nextDouble() < errorRate) {
+                    respond(exchange, 500, "application/json", "{\"result\":\"error\"}");
+                    return;
+                }
+                String path = exchange.getRequestURI().getPath();
+                String base = path.substring(path.lastIndexOf('/') + 1).toUpperCase();
+                respond(exchange, 200, "application/json", latestJson(base, codes));
+            } finally {
+                exchange.close();
+            }
+        });
+        server.createContext("/sheet", exchange -> {
+            try {
+                sleep(latencyMs);
+                respond(exchange, 200, "text/html; charset=UTF-8", sheet);
+            } finally {
+                exchange.close();
+            }
+        });
+        server.createContext("/stats", exchange -> {
+            respond(exchange, 200, "application/json", "{\"requests\":" + requests.get() + "}");
+            exchange.close();
+        });
+        server.start();
+
+        System.out.printf("Upstream stub listening on http://localhost:%d/v4/latest/{base}"
+                + " (latency=%dms, error-rate=%.3f, currencies=%d)%n", port, latencyMs, errorRate, codes.size());
+    }
+
+    /**
+     * 外部APIと同じ形のJSONを作る（レートは通貨ごとに少しずつ変える）
+     */
+    private static String latestJson(String base, List<String> codes) {
+        StringBuilder json = new StringBuilder(codes.size() * 16 + 128);
+        json.append("{\"provider\":\"upstream-stub\",\"base\":\"").append(base)
+            .append("\",\"date\":\"").append(LocalDate.now())
+            .append("\",\"time_last_updated\":").append(System.currentTimeMillis() / 1000)
+            .append(",\"rates\":{");
+        for (int i = 0; i < codes.size(); i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            String code = codes.get(i);
+            double rate = code.equals(base) ? 1.0 : 0.005 + (Math.abs(code.hashCode()) % 20000) / 100.0;
+            json.append('"').append(code).append("\":").append(rate);
+        }
+        return json.append("}}").toString();
+    }
+
+    /**
+     * exchange-rates.html と同じ形の為替レート表を作る
+     */
+    private static String rateSheetHtml(int rows) {
+        StringBuilder html = new StringBuilder(rows * 64 + 256);
+        html.append("<!DOCTYPE html>\n<html>\n<head>\n<meta charset=\"UTF-8\">\n<title>為替レート API</title>\n</head>\n")
+            .append("<body>\n<div id=\"exchange-container\">\n<h2>為替レート情報</h2>\n<table border=\"1\">\n")
+            .append("<tr>\n<th>通貨</th>\n<th>レート（JPY）</th>\n</tr>\n");
+        for (int i = 0; i < rows; i++) {
+            html.append("<tr>\n<td>C").append(i).append("</td>\n<td class=\"rate\">")
+                .append(100 + i % 97).append('.').append(i % 100).append("</td>\n</tr>\n");
+        }
+        return html.append("</table>\n</div>\n</body>\n</html>\n").toString();
+    }
+
+    /**
+     * 応答に含める通貨コード（アプリが使う通貨を先頭にして、指定数までほかの通貨で埋める）
+     */
+    private static List<String> currencyCodes(int count) {
+        List<String> codes = new ArrayList<>(List.of(
+                "JPY", "USD", "EUR", "GBP", "CNY", "KRW", "AUD", "NZD", "CAD", "CHF", "HKD", "SGD"));
+        for (Currency currency : Currency.getAvailableCurrencies()) {
+            if (codes.size() >= count) {
+                break;
+            }
+            if (!codes.contains(currency.getCurrencyCode())) {
+                codes.add(currency.getCurrencyCode());
+            }
+        }
+        return codes;
+    }
+
+    private static void respond(HttpExchange exchange, int status, String contentType, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
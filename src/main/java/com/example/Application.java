@@ -2,8 +2,12 @@ package com.example;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@ConfigurationPropertiesScan  // com.example.config の *Properties を application.properties と結び付ける
+@EnableScheduling  // 為替レート履歴の定期記録（@Scheduled）を有効にする
 public class Application {
     public static void main(String[] args) {
         SpringApplication.run(Application.class, args);
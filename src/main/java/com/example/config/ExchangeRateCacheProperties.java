@@ -0,0 +1,46 @@
+package com.example.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * ===== ExchangeRateCacheProperties レコード =====
+ * 最新レートキャッシュの設定（application.properties の exchange.cache.*）
+ *
+ * @param ttl              キャッシュの有効期間（これを過ぎたエントリは破棄される）
+ * @param maxEntries       キャッシュする基準通貨の最大数
+ * @param refreshThreshold 有効期間のうち、どの割合を過ぎたら裏で再取得を始めるか（0 より大きく 1 より小さい値）
+ */
+@ConfigurationProperties(prefix = "exchange.cache")
+public record ExchangeRateCacheProperties(
+        @DefaultValue("1h") Duration ttl,
+        @DefaultValue("100") int maxEntries,
+        @DefaultValue("0.8") double refreshThreshold) {
+
+    /**
+     * 設定値を検証する（誤った値では起動しない）
+     * refreshThreshold が 0 だと再取得までの時間が 0 になって Caffeine が例外を投げ、
+     * 1 以上だと再取得より先にエントリが破棄されて、裏での再取得が行われなくなる
+     */
+    public ExchangeRateCacheProperties {
+        if (ttl == null || ttl.isNegative() || ttl.isZero()) {
+            throw new IllegalArgumentException("exchange.cache.ttl は正の期間で指定してください: " + ttl);
+        }
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("exchange.cache.max-entries は1以上で指定してください: " + maxEntries);
+        }
+        if (!(refreshThreshold > 0 && refreshThreshold < 1)) {
+            throw new IllegalArgumentException(
+                    "exchange.cache.refresh-threshold は 0 より大きく 1 より小さい値で指定してください: " + refreshThreshold);
+        }
+    }
+
+    /**
+     * 再取得を始めるまでの時間（ttl × refreshThreshold、最短 1ms）
+     */
+    public Duration refreshAfter() {
+        return Duration.ofMillis(Math.max(1, (long) (ttl.toMillis() * refreshThreshold)));
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.http.HttpHost;
+import org.apache.hc.core5.pool.PoolStats;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.function.ToIntFunction;
+
+/**
+ * ===== HttpClientConfig クラス =====
+ * 外部API用のHTTPクライアントを1つだけ作り、アプリ全体で共有する設定
+ * Apache HttpClient 5 のコネクションプールを使うことで、
+ * Keep-Alive による接続の再利用ができ、リクエストごとのTCP接続・TLSハンドシェイクが不要になる
+ *
+ * メトリクス（/actuator/metrics）:
+ *   - exchange.http.pool.leased / available / pending / max: プールの使用状況
+ */
+@Configuration
+public class HttpClientConfig {
+
+    /**
+     * コネクションプール（接続数の上限とタイムアウトを設定）
+     */
+    @Bean
+    public PoolingHttpClientConnectionManager upstreamConnectionManager(UpstreamHttpProperties properties,
+                                                                        MeterRegistry meterRegistry) {
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(properties.maxTotal())
+                .setMaxConnPerRoute(properties.maxPerRoute())
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.ofMilliseconds(properties.connectTimeout().toMillis()))
+                        .setSocketTimeout(Timeout.ofMilliseconds(properties.readTimeout().toMillis()))
+                        .build())
+                .build();
+
+        // ホストごとの接続数の上限（HTTPS の既定ポートへの接続として登録する）
+        properties.routeLimits().forEach((host, limit) ->
+                connectionManager.setMaxPerRoute(new HttpRoute(new HttpHost("https", host, 443), null, true), limit));
+
+        registerPoolGauge(meterRegistry, connectionManager, "leased", "貸し出し中の接続数", PoolStats::getLeased);
+        registerPoolGauge(meterRegistry, connectionManager, "available", "再利用を待っている接続数", PoolStats::getAvailable);
+        registerPoolGauge(meterRegistry, connectionManager, "pending", "接続の空きを待っているリクエスト数", PoolStats::getPending);
+        registerPoolGauge(meterRegistry, connectionManager, "max", "プール全体の最大接続数", PoolStats::getMax);
+        return connectionManager;
+    }
+
+    /**
+     * コネクションプールを使うHTTPクライアント
+     */
+    @Bean
+    public CloseableHttpClient upstreamHttpClient(PoolingHttpClientConnectionManager upstreamConnectionManager,
+                                                  UpstreamHttpProperties properties) {
+        return HttpClients.custom()
+                .setConnectionManager(upstreamConnectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.ofMilliseconds(properties.connectionRequestTimeout().toMillis()))
+                        .setResponseTimeout(Timeout.ofMilliseconds(properties.responseTimeout().toMillis()))
+                        .build())
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.ofMilliseconds(properties.idleTimeout().toMillis()))
+                .build();
+    }
+
+    /**
+     * 外部API用の RestTemplate（アプリ全体で1つを共有する）
+     */
+    @Bean
+    public RestTemplate upstreamRestTemplate(RestTemplateBuilder restTemplateBuilder,
+                                             CloseableHttpClient upstreamHttpClient) {
+        return restTemplateBuilder
+                .requestFactory(() -> new HttpComponentsClientHttpRequestFactory(upstreamHttpClient))
+                .build();
+    }
+
+    private static void registerPoolGauge(MeterRegistry meterRegistry,
+                                          PoolingHttpClientConnectionManager connectionManager,
+                                          String name, String description,
+                                          ToIntFunction<PoolStats> value) {
+        Gauge.builder("exchange.http.pool." + name, connectionManager, cm -> value.applyAsInt(cm.getTotalStats()))
+                .description(description)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.config;
+
+import com.example.service.RateSheetService;
+import com.example.web.PageCacheFilter;
+import com.example.web.ZodiacPageRenderer;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.ServletContext;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.thymeleaf.ITemplateEngine;
+
+import java.util.Set;
+
+/**
+ * ===== PageCacheConfig クラス =====
+ * 画面の HTML をメモリに保存するフィルタ（PageCacheFilter）の設定
+ * 対象の画面は exchange.page-cache.paths で指定する（空にすると何も保存しない）
+ * Filter の Bean なので、Spring Boot が全てのURLに登録する（対象外のURLはフィルタ内で素通りさせる）
+ * 干支判定の結果画面（POST /zodiac）を作り置きの部品から組み立てる ZodiacPageRenderer もここで作る
+ */
+@Configuration
+public class PageCacheConfig {
+
+    @Bean
+    public PageCacheFilter pageCacheFilter(RateSheetService rateSheetService,
+                                           @Value("${exchange.page-cache.paths:/,/about}") Set<String> paths,
+                                           MeterRegistry meterRegistry) {
+        return new PageCacheFilter(rateSheetService, paths, meterRegistry);
+    }
+
+    @Bean
+    public ZodiacPageRenderer zodiacPageRenderer(ITemplateEngine templateEngine,
+                                                 ServletContext servletContext,
+                                                 RateSheetService rateSheetService,
+                                                 @Value("${exchange.page-cache.zodiac-fragments:1000}") long maxFragments,
+                                                 MeterRegistry meterRegistry) {
+        return new ZodiacPageRenderer(templateEngine, servletContext, rateSheetService, maxFragments, meterRegistry);
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.config;
+
+import com.example.scraping.ClasspathRateSheetSource;
+import com.example.scraping.FileRateSheetSource;
+import com.example.scraping.HttpRateSheetSource;
+import com.example.scraping.RateSheetSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.client.RestTemplate;
+
+import java.nio.file.Path;
+
+/**
+ * ===== RateSheetSourceConfig クラス =====
+ * 為替レート表の取得元を、設定（exchange.sheet.source）に応じて1つ選ぶ設定
+ *   - classpath: クラスパス上のファイル（既定、exchange-rates.html）
+ *   - file:      ローカルファイル（変更を監視して自動で読み込み直す）
+ *   - http:      HTTP のURL
+ */
+@Configuration
+public class RateSheetSourceConfig {
+
+    @Bean
+    public RateSheetSource rateSheetSource(@Value("${exchange.sheet.source:classpath}") String source,
+                                           @Value("${exchange.sheet.location:exchange-rates.html}") String location,
+                                           @Qualifier("upstreamRestTemplate") RestTemplate restTemplate) {
+        return switch (source) {
+            case "classpath" -> new ClasspathRateSheetSource(location);
+            case "file" -> new FileRateSheetSource(Path.of(location));
+            case "http" -> new HttpRateSheetSource(restTemplate, location);
+            default -> throw new IllegalArgumentException(
+                    "exchange.sheet.source には classpath、file、http のいずれかを指定してください: " + source);
+        };
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.CacheControl;
+import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistration;
+import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.resource.ContentVersionStrategy;
+import org.springframework.web.servlet.resource.EncodedResourceResolver;
+import org.springframework.web.servlet.resource.VersionResourceResolver;
+
+import java.time.Duration;
+
+/**
+ * ===== StaticResourceConfig クラス =====
+ * 静的ファイル（static/css）の配信設定
+ *
+ * - URL にファイル内容のハッシュを付ける（/css/style.css → /css/style-{ハッシュ}.css）
+ *   テンプレートの @{/css/style.css} は、表示時に自動でハッシュ付きの URL に書き換わる
+ *   （ResourceUrlEncodingFilter、application.properties の spring.web.resources.chain.enabled）
+ * - ハッシュ付きの URL は内容が変われば URL も変わるので、ブラウザには1年間キャッシュさせ、immutable で再検証もさせない
+ * - ハッシュなしの URL（/css/style.css）は同じ URL のまま内容が変わるので、no-cache で毎回再検証させる
+ *   ETag はハッシュ付きの URL と同じ内容のハッシュにし、変わっていなければ 304 を返す
+ * - ビルド時に作った圧縮版（.br / .gz、build.gradle の processResources）があれば、
+ *   ブラウザの Accept-Encoding に合わせてそちらを返す
+ */
+@Configuration
+public class StaticResourceConfig implements WebMvcConfigurer {
+
+    /** ハッシュ付きの URL をブラウザにキャッシュさせる期間 */
+    private static final Duration MAX_AGE = Duration.ofDays(365);
+    /**
+     * ハッシュ付きの URL（VersionResourceResolver の内容のハッシュは MD5 の16進32桁）
+     * /css/** より具体的なパターンなので、ハッシュ付きの URL はこちらに振り分けられる
+     */
+    private static final String VERSIONED_CSS = "/css/{file:[^/]+-[0-9a-f]{32}\\.[^/]+}";
+
+    @Override
+    public void addResourceHandlers(ResourceHandlerRegistry registry) {
+        css(registry.addResourceHandler(VERSIONED_CSS))
+                .setCacheControl(CacheControl.maxAge(MAX_AGE).cachePublic().immutable())
+                .resourceChain(true)
+                .addResolver(new EncodedResourceResolver())
+                .addResolver(versionResolver());
+
+        ContentVersionStrategy contentVersion = new ContentVersionStrategy();
+        css(registry.addResourceHandler("/css/**"))
+                .setCacheControl(CacheControl.noCache())
+                .setEtagGenerator(contentVersion::getResourceVersion)
+                .resourceChain(true)
+                .addResolver(new EncodedResourceResolver())
+                .addResolver(versionResolver());
+    }
+
+    private static ResourceHandlerRegistration css(ResourceHandlerRegistration registration) {
+        return registration.addResourceLocations("classpath:/static/css/");
+    }
+
+    private static VersionResourceResolver versionResolver() {
+        return new VersionResourceResolver().addContentVersionStrategy("/**");
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * ===== UpstreamHttpProperties レコード =====
+ * 外部APIと通信するHTTPクライアント（コネクションプール）の設定（exchange.http.*）
+ *
+ * @param maxTotal                 プール全体の最大接続数
+ * @param maxPerRoute              接続先（ホスト）ごとの最大接続数の既定値
+ * @param routeLimits              ホスト名 → 最大接続数（既定値を上書きしたいホストだけ指定）
+ * @param connectTimeout           TCP接続・TLSハンドシェイクのタイムアウト
+ * @param readTimeout              ソケットの読み取りタイムアウト
+ * @param responseTimeout          応答を待つタイムアウト
+ * @param connectionRequestTimeout プールから接続を借りるまでの待ち時間の上限
+ * @param idleTimeout              使われていない接続を閉じるまでの時間
+ */
+@ConfigurationProperties(prefix = "exchange.http")
+public record UpstreamHttpProperties(
+        @DefaultValue("50") int maxTotal,
+        @DefaultValue("20") int maxPerRoute,
+        @DefaultValue Map<String, Integer> routeLimits,
+        @DefaultValue("3s") Duration connectTimeout,
+        @DefaultValue("5s") Duration readTimeout,
+        @DefaultValue("5s") Duration responseTimeout,
+        @DefaultValue("2s") Duration connectionRequestTimeout,
+        @DefaultValue("30s") Duration idleTimeout) {
+}
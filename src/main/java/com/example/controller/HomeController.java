@@ -1,19 +1,42 @@
 package com.example.controller;
 
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.info.BuildProperties;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestParam;
-import org.springframework.web.client.RestTemplate;
-import org.jsoup.Jsoup;
-import org.jsoup.nodes.Document;
-import org.jsoup.nodes.Element;
-import org.jsoup.select.Elements;
-import com.google.gson.JsonObject;
-import com.google.gson.JsonParser;
+import org.springframework.web.context.request.WebRequest;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicReference;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.time.format.DateTimeParseException;
+import com.example.model.BulkIngestResult;
+import com.example.model.Currencies;
+import com.example.model.DateSexagenary;
+import com.example.model.LatestRates;
+import com.example.model.RateHistory;
+import com.example.model.RateQuote;
+import com.example.model.RateSheet;
+import com.example.service.CrossRateService;
+import com.example.service.ExchangeRateHistoryStore;
+import com.example.service.LatestRatesCache;
+import com.example.service.RateSheetService;
+import com.example.service.SexagenaryCalendar;
+import com.example.service.ZodiacBatchProcessor;
+import com.example.service.ZodiacCalculator;
+import com.example.scraping.RateSheetBulkIngester;
+import com.example.web.ZodiacPageRenderer;
 
 /**
  * ===== import文の説明 =====
@@ -24,12 +47,29 @@ import org.springframework.http.ResponseEntity;
  *   - @GetMapping: GET通信でアクセスされた時に実行するメソッドを指定
  *   - @PostMapping: POST通信でアクセスされた時に実行するメソッドを指定
  *   - @RequestParam: HTMLフォームから送信されたパラメータ（ユーザー入力値）を受け取る
+ *   - WebRequest: 条件付きリクエスト（If-None-Match / If-Modified-Since）の判定に使う
+ *     checkNotModified() が true を返したら、画面を作らずに 304 Not Modified を返す
  * 
  * スクレイピング関連:
- *   - Jsoup: WebページのHTMLをパースして、必要なデータを抽出する
- *   - Document: パースされたHTMLドキュメント
- *   - Element: HTMLの要素（タグ）を表す
- *   - Elements: 複数のElement を扱う（リストのようなもの）
+ *   - RateSheetService: 為替レート表をバックグラウンドでスクレイピングし、結果を保持するサービス
+ *   - RateSheet: スクレイピング結果（通貨とレートの一覧、表示用テキスト）
+ *   - RateSheetBulkIngester: 複数のレート表を並列に取り込んで通貨ごとにまとめる処理
+ *   - BulkIngestResult: まとめて取り込んだ結果（シートごとの所要時間、通貨ごとの集計）
+ * 
+ * 干支判定関連:
+ *   - ZodiacCalculator: 西暦から干支を判定する処理（フォームとまとめて判定する API で共通）
+ *   - ZodiacBatchProcessor: 大量の西暦を、本文を読みながら少しずつ判定して書き出す処理
+ *   - SexagenaryCalendar: 日付から干支（十干十二支）を求める処理（旧正月の表を使う）
+ *   - DateSexagenary: 日付から求めた年の干支と日の干支（フォームと API で共通、干支は甲子 など60通りの1つ）
+ *   - ZodiacPageRenderer: 判定結果の画面を、作り置きの外枠と入力ごとに保存した判定結果の部分から組み立てる処理
+ * 
+ * 為替レート関連:
+ *   - LatestRatesCache: 外部APIから取得した最新レートのキャッシュ
+ *   - LatestRates: 1回分の応答から読み取ったレート（扱う通貨のみ）
+ *   - RateQuote: 1通貨分のレート（固定小数点、String.format を使わずに表示できる）
+ *   - CrossRateService: JPY 基準のレートから任意の基準通貨のレートを計算するサービス
+ *   - ExchangeRateHistoryStore: バックグラウンドで記録したレート履歴（メモリ上）
+ *   - RateHistory: 履歴ストアから読み出したレート推移
  */
 
 /**
@@ -41,47 +81,69 @@ import org.springframework.http.ResponseEntity;
 @Controller
 public class HomeController {
 
+    /** NDJSON（1行に1つの JSON）の Content-Type */
+    private static final String NDJSON = "application/x-ndjson";
+    /** バイナリのまとめて判定する API で、結果を送り始めた後の失敗を知らせるトレーラー */
+    private static final String BATCH_ERROR_TRAILER = "X-Batch-Error";
+    /** 干支判定で 0 以下の西暦を指定された場合のメッセージ */
+    private static final String YEAR_OUT_OF_RANGE = "西暦は1以上の整数で指定してください";
+    /** 履歴がまだ1件も記録されていない場合に、再度問い合わせるまで待ってもらう時間 */
+    private static final Duration HISTORY_RETRY_AFTER = Duration.ofSeconds(10);
+
+    private final LatestRatesCache latestRatesCache;
+    private final CrossRateService crossRateService;
+    private final ExchangeRateHistoryStore historyStore;
+    private final RateSheetService rateSheetService;
+    private final RateSheetBulkIngester bulkIngester;
+    private final ZodiacPageRenderer zodiacPageRenderer;
+    /**
+     * ETag と Last-Modified に含める、このアプリのビルド日時（ビルド情報がない場合は起動日時、ミリ秒）
+     * テンプレートや CSS を変えて再デプロイした後に、前の版の画面に 304 を返さないようにする
+     */
+    private final long deployedAt;
+
+    public HomeController(LatestRatesCache latestRatesCache,
+                          CrossRateService crossRateService,
+                          ExchangeRateHistoryStore historyStore,
+                          RateSheetService rateSheetService,
+                          RateSheetBulkIngester bulkIngester,
+                          ZodiacPageRenderer zodiacPageRenderer,
+                          ObjectProvider<BuildProperties> buildProperties) {
+        this.latestRatesCache = latestRatesCache;
+        this.crossRateService = crossRateService;
+        this.historyStore = historyStore;
+        this.rateSheetService = rateSheetService;
+        this.bulkIngester = bulkIngester;
+        this.zodiacPageRenderer = zodiacPageRenderer;
+        BuildProperties build = buildProperties.getIfAvailable();
+        this.deployedAt = build != null && build.getTime() != null
+                ? build.getTime().toEpochMilli()
+                : System.currentTimeMillis();
+    }
+
     /**
      * ホームページ（/）へのアクセスを処理
      * 「スクレイピング」で /exchange から為替レート情報を取得して表示
      */
     @GetMapping("/")  // http://localhost:8080/ にアクセスされたら実行
-    public String home(Model model) {
+    public String home(WebRequest request, Model model) {
         // 基本情報を設定
         model.addAttribute("title", "Spring Boot Website");
         model.addAttribute("message", "ようこそ！");
         
         try {
             // /exchange から為替レート情報を「スクレイピング」で取得
-            // （実際はHTMLファイルから取得）
-            java.nio.file.Path path = java.nio.file.Paths.get(
-                "src/main/resources/exchange-rates.html"
-            );
-            String htmlContent = java.nio.file.Files.readString(path);
-            
-            // HTMLをJsoupでパース
-            Document doc = Jsoup.parse(htmlContent);
-            
-            // テーブルから通貨レート情報を抽出
-            StringBuilder scrapedData = new StringBuilder();
-            
-            scrapedData.append("【スクレイピングで取得した為替レート】\n");
-            scrapedData.append("━━━━━━━━━━━━━━━━━━━━\n");
+            // （実際はバックグラウンドでスクレイピング済みの結果を読むだけ）
+            RateSheet sheet = rateSheetService.get();
             
-            // 各通貨レートを抽出
-            Elements currencies = doc.select("table tr");
-            for (int i = 1; i < currencies.size(); i++) {
-                Element row = currencies.get(i);
-                Elements cells = row.select("td");
-                if (cells.size() == 2) {
-                    String currency = cells.get(0).text();
-                    String rate = cells.get(1).text();
-                    scrapedData.append(currency).append(": ").append(rate).append(" JPY\n");
-                }
+            // ブラウザが同じスナップショットの画面を持っていれば 304 を返す
+            long updatedAt = sheet.updatedAt().toEpochMilli();
+            if (request.checkNotModified(etag("sheet", sheet.version(), updatedAt), lastModified(updatedAt))) {
+                return null;
             }
             
             // スクレイピング結果をHTMLに渡す
-            model.addAttribute("scrapedExchangeRates", scrapedData.toString());
+            model.addAttribute("scrapedExchangeRates", sheet.text());
             model.addAttribute("showExchangeRates", true);
             
         } catch (Exception e) {
@@ -95,25 +157,96 @@ public class HomeController {
 
     /**
      * 干支判定フォームの送信を処理
-     * ユーザーが入力した西暦から干支を計算して結果をHTMLに渡す
+     * ユーザーが入力した西暦（または生年月日）から干支を計算して結果をHTMLに渡す
+     * 生年月日を入力した場合は旧正月を考慮する（旧正月より前に生まれた人は前の年の干支）
+     * 画面は ZodiacPageRenderer が、作り置きの外枠と入力ごとに保存した判定結果の部分をつなげて返す
      */
     @PostMapping("/zodiac")  // index.htmlの<form action="/zodiac">から送信されたら実行
-    public String zodiac(@RequestParam(name = "year", required = false) Integer year, Model model) {
-        // 共通のデータを設定
-        model.addAttribute("title", "干支判定結果");
-        model.addAttribute("message", "ようこそ！");
+    public void zodiac(@RequestParam(name = "year", required = false) Integer year,
+                       @RequestParam(name = "date", required = false) String date,
+                       HttpServletRequest request,
+                       HttpServletResponse response) throws IOException {
+        // 判定結果の部分に渡す値（Thymeleafで${inputYear}や${zodiacSign}で参照可能）
+        Map<String, Object> result = new HashMap<>();
+        // 判定結果を保存する時のキー（結果は入力だけで決まる、エラーは保存しないので null のまま）
+        String key = null;
         
-        // ユーザーが年を入力した場合のみ処理
-        if (year != null && year > 0) {
-            // 年から干支を計算（例：2024年 → 龍）
-            String zodiac = getZodiac(year);
-            // 計算結果をHTMLに渡す（Thymeleafで${inputYear}と${zodiacSign}で参照可能）
-            model.addAttribute("inputYear", year);
-            model.addAttribute("zodiacSign", zodiac);
+        try {
+            Optional<DateSexagenary> byDate = SexagenaryCalendar.parseDate(date);
+            if (byDate.isPresent()) {
+                // 生年月日から、旧暦の年の干支と日の干支を計算（例：2024-02-09 → 癸卯、2024-02-10 → 甲辰）
+                DateSexagenary birthday = byDate.get();
+                result.put("inputDate", birthday.date());
+                result.put("lunarYear", birthday.lunarYear());
+                result.put("lunarNewYear", birthday.lunarNewYear());
+                result.put("zodiacSign", birthday.year().animal());
+                result.put("sexagenary", birthday.year());
+                result.put("daySexagenary", birthday.day());
+                key = "date:" + birthday.date();
+            } else if (year != null && year <= 0) {
+                // /api/zodiac と同じく、0 以下の西暦は判定しない
+                result.put("zodiacError", YEAR_OUT_OF_RANGE);
+            } else if (year != null) {
+                // 年から干支を計算（例：2024年 → 竜、甲辰）
+                String zodiac = getZodiac(year);
+                result.put("inputYear", year);
+                result.put("zodiacSign", zodiac);
+                result.put("sexagenary", SexagenaryCalendar.ofYear(year));
+                key = "year:" + year;
+            } else {
+                // 入力なしはホーム画面と同じく結果なしの画面（判定結果の部分は空）
+                key = "none";
+            }
+        } catch (DateTimeParseException | IllegalArgumentException e) {
+            result.put("zodiacError", "干支を判定できません: " + e.getMessage());
         }
         
-        // 結果を表示するためindex.htmlを返す
-        return "index";
+        // タイトルやスクレイピング結果など、それ以外の部分は外枠としてまとめて作り置きされている
+        zodiacPageRenderer.render(key, result, request, response);
+    }
+
+    /**
+     * REST API: 干支を判定（index.html の干支判定フォームから非同期で呼び出される）
+     * 画面全体を作り直さずに、判定結果だけを小さなJSONで返す
+     * 同じ入力には常に同じ結果になるので、ブラウザに1日キャッシュさせる
+     * @param year 西暦
+     * @param date 生年月日（2024-02-10 の形式、指定した場合は旧正月を考慮する）
+     * @return JSON形式で干支（zodiac: 動物、sexagenary: 十干十二支）
+     */
+    @GetMapping("/api/zodiac")
+    public ResponseEntity<Map<String, Object>> getZodiacJson(
+            @RequestParam(required = false) Integer year,
+            @RequestParam(required = false) String date) {
+        Map<String, Object> response = new HashMap<>();
+        try {
+            Optional<DateSexagenary> byDate = SexagenaryCalendar.parseDate(date);
+            if (byDate.isPresent()) {
+                DateSexagenary birthday = byDate.get();
+                response.put("date", birthday.date().toString());
+                response.put("year", birthday.date().getYear());
+                response.put("lunarYear", birthday.lunarYear());
+                response.put("lunarNewYear", birthday.lunarNewYear().toString());
+                response.put("zodiac", birthday.year().animal());
+                response.put("sexagenary", birthday.year());
+                response.put("day", birthday.day());
+            } else if (year != null) {
+                // フォームの送信（POST /zodiac）と同じく、0 以下の西暦は判定しない
+                if (year <= 0) {
+                    return errorResponse(YEAR_OUT_OF_RANGE);
+                }
+                response.put("year", year);
+                response.put("zodiac", getZodiac(year));
+                response.put("sexagenary", SexagenaryCalendar.ofYear(year));
+            } else {
+                return errorResponse("year または date を指定してください");
+            }
+        } catch (DateTimeParseException | IllegalArgumentException e) {
+            return errorResponse("干支を判定できません: " + e.getMessage());
+        }
+        response.put("success", true);
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(Duration.ofDays(1)).cachePublic())
+                .body(response);
     }
 
     /**
@@ -121,16 +254,17 @@ public class HomeController {
      * 外部APIから為替レート情報を取得してHTMLテンプレートに表示
      */
     @GetMapping("/exchange")  // http://localhost:8080/exchange にアクセスされたら実行
-    public String exchange(Model model) {
+    public String exchange(WebRequest request, Model model) {
         try {
             // 外部APIから為替レート情報を取得
-            RestTemplate restTemplate = new RestTemplate();
-            String apiUrl = "https://api.exchangerate-api.com/v4/latest/JPY";
-            String response = restTemplate.getForObject(apiUrl, String.class);
+            // （キャッシュ済みならそれを返し、同時に来たリクエストとは1回の通信を共有する）
+            LatestRates rates = latestRatesCache.get(CrossRateService.AUTHORITATIVE_BASE);
             
-            // JSON応答をパース
-            JsonObject jsonResponse = JsonParser.parseString(response).getAsJsonObject();
-            JsonObject rates = jsonResponse.getAsJsonObject("rates");
+            // ブラウザが同じレートの画面を持っていれば 304 を返す（外部APIが更新した日時で判定）
+            long updatedAt = rates.updatedAt().toEpochMilli();
+            if (request.checkNotModified(etag("rates", 0, updatedAt), lastModified(updatedAt))) {
+                return null;
+            }
             
             // テーブルから通貨情報を抽出（主要通貨のみ）
             StringBuilder exchangeInfo = new StringBuilder();
@@ -140,9 +274,11 @@ public class HomeController {
             exchangeInfo.append("━━━━━━━━━━━━━━━━━━━━━━━━━━━━━\n");
             
             for (String currency : majorCurrencies) {
-                if (rates.has(currency)) {
-                    double rate = rates.get(currency).getAsDouble();
-                    exchangeInfo.append(currency).append(": ").append(String.format("%.4f", rate)).append(" JPY\n");
+                double rate = rates.rate(currency);
+                if (!Double.isNaN(rate)) {
+                    // 固定小数点にして小数点以下4桁で書き出す（String.format を使わない）
+                    RateQuote quote = RateQuote.of(currency, rate);
+                    quote.appendRate(exchangeInfo.append(currency).append(": ")).append(" JPY\n");
                 }
             }
             
@@ -161,15 +297,13 @@ public class HomeController {
 
     /**
      * 西暦から干支を計算するヘルパーメソッド
-     * 12年周期で干支が繰り返されることを利用（例：2024年 % 12 = 龍）
+     * 12年周期で干支が繰り返されることを利用（例：2024年 → 竜）
      * @param year 西暦
      * @return 干支（鼠、牛、虎...など）
      */
     private String getZodiac(int year) {
-        // 干支の配列（12年周期）
-        String[] zodiacSigns = {"鼠", "牛", "虎", "兎", "竜", "蛇", "馬", "羊", "猿", "鶏", "犬", "猪"};
-        // 西暦を12で割った余りで干支を判定（例：2024-4=2020, 2020%12=8 → 猿）
-        return zodiacSigns[(year - 4) % 12];
+        // 判定は /api/zodiac/batch と共通の ZodiacCalculator で行う
+        return ZodiacCalculator.sign(year);
     }
 
     /**
@@ -187,61 +321,304 @@ public class HomeController {
     /**
      * REST API: 過去5日間の為替レート履歴を取得
      * フロントエンドから非同期で呼び出される
+     * 履歴はバックグラウンドで1日1件ずつ記録した JPY 基準のレートから、指定の基準通貨に換算してメモリから返す
+     * リクエストの処理中には外部APIに通信しない
+     * まだ1件も記録がない場合（起動直後の記録が終わる前）は、503 と Retry-After で後から問い合わせてもらう
+     * ブラウザが同じ履歴を持っていれば、履歴を読み出さずに 304 を返す
      * @param base 基準通貨（USD、EUR など）
+     * @param days 取得する日数（省略時は5日）
      * @return JSON形式で過去5日間のレート情報
      */
     @GetMapping("/api/exchange-history")
-    public ResponseEntity<?> getExchangeRateHistory(@RequestParam String base) {
+    public ResponseEntity<Map<String, Object>> getExchangeRateHistory(
+            @RequestParam String base,
+            @RequestParam(defaultValue = "5") int days,
+            WebRequest request) {
+        String code = base.toUpperCase().trim();
+        
+        // 扱う通貨コードのみ受け付ける
+        if (Currencies.indexOf(code) < 0) {
+            return errorResponse("対応していない通貨コードです: " + code);
+        }
+        
+        // 記録済みの内容が変わっていなければ 304 を返す（レスポンスの本文は作らない）
+        long version = historyStore.version();
+        long updatedAt = historyStore.updatedAt().toEpochMilli();
+        if (version > 0 && request.checkNotModified(etag("history", version, updatedAt), lastModified(updatedAt))) {
+            return null;
+        }
+        
+        // 記録済みの履歴をメモリから返す（まだ記録がなければ、記録されるまで待ってもらう）
+        return historyStore.read(code, days)
+                .map(this::historyResponse)
+                .orElseGet(this::historyPendingResponse);
+    }
+
+    /**
+     * REST API: 基準通貨の最新レートを取得
+     * JPY 基準のレートからクロスレートで計算する（基準通貨ごとに外部APIへ通信しない）
+     * キャッシュにない場合は外部APIから取得するが、待つ間もサーブレットのスレッドは解放される
+     * @param base 基準通貨（省略時は JPY）
+     * @return JSON形式で全通貨の最新レート
+     */
+    @GetMapping("/api/exchange-latest")
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> getLatestExchangeRates(
+            @RequestParam(defaultValue = "JPY") String base) {
+        String code = base.toUpperCase().trim();
+        
+        if (Currencies.indexOf(code) < 0) {
+            return CompletableFuture.completedFuture(errorResponse("対応していない通貨コードです: " + code));
+        }
+        
+        return crossRateService.getAsync(code)
+                .thenApply(latest -> {
+                    Map<String, Object> response = new HashMap<>();
+                    response.put("success", true);
+                    response.put("base", latest.base());
+                    response.put("date", latest.date().toString());
+                    response.put("rates", latest.toMap());
+                    return ResponseEntity.ok(response);
+                })
+                .exceptionally(e -> errorResponse("レート情報の取得に失敗しました: " + rootMessage(e)));
+    }
+
+    /**
+     * REST API: 干支（十干十二支）を取得
+     * date を指定した場合は旧正月を考慮した年の干支と日の干支、year を指定した場合はその年の干支を返す
+     * @param date 日付（2024-02-10 の形式、1900-01-31 ～ 2101-01-28）
+     * @param year 西暦（date を指定しない場合）
+     * @return JSON形式で干支
+     */
+    @GetMapping("/api/sexagenary")
+    public ResponseEntity<Map<String, Object>> getSexagenary(
+            @RequestParam(required = false) String date,
+            @RequestParam(required = false) Integer year) {
+        Map<String, Object> response = new HashMap<>();
         try {
-            base = base.toUpperCase().trim();
-            
-            // 過去5日間のレート取得
-            RestTemplate restTemplate = new RestTemplate();
-            Map<String, List<Double>> rateHistory = new LinkedHashMap<>();
-            String[] currencies = {"USD", "EUR", "AUD", "NZD"};
-            
-            // 各通貨のレート推移を取得
-            for (String currency : currencies) {
-                List<Double> rates = new ArrayList<>();
-                
-                for (int i = 4; i >= 0; i--) {
-                    try {
-                        // 過去レート取得API
-                        String apiUrl = String.format(
-                            "https://api.exchangerate-api.com/v4/latest/%s",
-                            base
-                        );
-                        String response = restTemplate.getForObject(apiUrl, String.class);
-                        JsonObject jsonResponse = JsonParser.parseString(response).getAsJsonObject();
-                        JsonObject ratesObj = jsonResponse.getAsJsonObject("rates");
-                        
-                        if (ratesObj.has(currency)) {
-                            double rate = ratesObj.get(currency).getAsDouble();
-                            rates.add(rate);
-                        }
-                    } catch (Exception e) {
-                        // エラーの場合はスキップして次の日付へ
-                        rates.add(null);
-                    }
-                }
-                
-                rateHistory.put(currency, rates);
+            // date が未入力（?date= など）の場合は、/api/zodiac と同じく year で判定する
+            Optional<DateSexagenary> byDate = SexagenaryCalendar.parseDate(date);
+            if (byDate.isPresent()) {
+                DateSexagenary day = byDate.get();
+                response.put("date", day.date().toString());
+                response.put("lunarYear", day.lunarYear());
+                response.put("lunarNewYear", day.lunarNewYear().toString());
+                response.put("year", day.year());
+                response.put("day", day.day());
+            } else if (year != null) {
+                response.put("lunarYear", year);
+                response.put("year", SexagenaryCalendar.ofYear(year));
+            } else {
+                return errorResponse("date または year を指定してください");
+            }
+        } catch (DateTimeParseException | IllegalArgumentException e) {
+            return errorResponse("干支を判定できません: " + e.getMessage());
+        }
+        response.put("success", true);
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * REST API: 大量の西暦の干支をまとめて判定する（NDJSON）
+     * 1行に1つ、西暦の数値または {"year":1990} を送ると、1行に1つ {"year":1990,"zodiac":"馬"} を返す
+     * 本文全体を読み込まず、8192件ずつ判定して書き出す（何百万件でもメモリ使用量は一定）
+     * 読めない行があった場合:
+     *   - まだ何も送っていなければ 400 と {"error":"...","index":n} の1行を返す
+     *   - 既に結果を送り始めていれば（200 で確定済み）、最後の行として {"error":"...","index":n} を書く
+     *     （n は読めなかった行が何件目か、0 から数える。途中で切れた結果と区別できる）
+     */
+    @PostMapping(value = "/api/zodiac/batch", consumes = NDJSON, produces = NDJSON)
+    public void zodiacBatchNdjson(InputStream body, HttpServletResponse response) throws IOException {
+        response.setContentType(NDJSON);
+        try {
+            ZodiacBatchProcessor.classifyNdjson(body, response.getOutputStream());
+        } catch (ZodiacBatchProcessor.InvalidInputException e) {
+            if (!response.isCommitted()) {
+                response.resetBuffer();
+                response.setStatus(HttpServletResponse.SC_BAD_REQUEST);
             }
+            ZodiacBatchProcessor.writeError(e, response.getOutputStream());
+        }
+    }
+
+    /**
+     * REST API: 大量の西暦の干支をまとめて判定する（バイナリ）
+     * 西暦を4バイトの整数（ビッグエンディアン）で並べて送ると、干支の番号（0 = 鼠 ～ 11 = 猪）を1件1バイトで返す
+     * 本文の長さ（Content-Length）が4バイトの倍数でなければ、読み始める前に 400 を返す
+     * 長さを指定せずに送った（chunked）本文の最後が半端だった場合:
+     *   - まだ何も送っていなければ 400 と {"error":"...","index":n} を返す
+     *   - 既に結果を送り始めていれば、トレーラー（X-Batch-Error: index=n）で知らせる
+     *   - トレーラーを送れない場合（HTTP/1.0 など）は、結果の後ろに 0xFF の1バイトと {"error":"...","index":n} の1行を続ける
+     *     （干支の番号は 0 ～ 11 なので、0xFF が来たらそこで結果は終わり）
+     */
+    @PostMapping(value = "/api/zodiac/batch",
+            consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE,
+            produces = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public void zodiacBatchBinary(InputStream body, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        long length = request.getContentLengthLong();
+        if (length >= 0 && length % Integer.BYTES != 0) {
+            writeBatchError(response, new ZodiacBatchProcessor.InvalidInputException(
+                    "入力の長さが4バイトの倍数ではありません: " + length, length / Integer.BYTES));
+            return;
+        }
+        
+        // 長さが分からない本文は、結果を送り始めた後に失敗が分かることがあるのでトレーラーを用意する
+        AtomicReference<ZodiacBatchProcessor.InvalidInputException> failure = new AtomicReference<>();
+        boolean trailers = length < 0 && registerBatchErrorTrailer(response, failure);
+        
+        response.setContentType(MediaType.APPLICATION_OCTET_STREAM_VALUE);
+        try {
+            ZodiacBatchProcessor.classifyBinary(body, response.getOutputStream());
+        } catch (ZodiacBatchProcessor.InvalidInputException e) {
+            if (!response.isCommitted()) {
+                writeBatchError(response, e);
+            } else if (trailers) {
+                failure.set(e);
+            } else {
+                ZodiacBatchProcessor.writeErrorFrame(e, response.getOutputStream());
+            }
+        }
+    }
+
+    /**
+     * 結果を送り始めた後の失敗を、トレーラー（X-Batch-Error）で知らせるように登録する
+     * 応答が確定済みの場合や、トレーラーを送れない接続（HTTP/1.0 など）では setTrailerFields が
+     * IllegalStateException を投げるので、登録せずに false を返す
+     * @return 登録できたかどうか
+     */
+    private static boolean registerBatchErrorTrailer(
+            HttpServletResponse response, AtomicReference<ZodiacBatchProcessor.InvalidInputException> failure) {
+        if (response.isCommitted()) {
+            return false;
+        }
+        try {
+            response.setTrailerFields(() -> failure.get() == null
+                    ? Map.of()
+                    : Map.of(BATCH_ERROR_TRAILER, "index=" + failure.get().index()));
+        } catch (IllegalStateException e) {
+            return false;
+        }
+        response.setHeader("Trailer", BATCH_ERROR_TRAILER);
+        return true;
+    }
+
+    /**
+     * まとめて判定する API のエラー応答（400 と {"error":"...","index":n}）
+     */
+    private static void writeBatchError(HttpServletResponse response, ZodiacBatchProcessor.InvalidInputException e)
+            throws IOException {
+        response.resetBuffer();
+        response.setStatus(HttpServletResponse.SC_BAD_REQUEST);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        ZodiacBatchProcessor.writeError(e, response.getOutputStream());
+    }
+
+    /**
+     * REST API: 複数の為替レート表をまとめて取り込む
+     * ディレクトリ内のすべてのシート（*.html）、または指定したシートを並列にパースし、通貨ごとのレートにまとめる
+     * パスは exchange.sheet.bulk-root からの相対パスで指定する（その外のファイルは読まない）
+     * @param directory 取り込むディレクトリ（files と同時には指定しない）
+     * @param files 取り込むシートの一覧
+     * @return JSON形式でシートごとの行数と所要時間、通貨ごとの集計結果
+     */
+    @PostMapping("/api/rate-sheets/ingest")
+    public ResponseEntity<Map<String, Object>> ingestRateSheets(
+            @RequestParam(required = false) String directory,
+            @RequestParam(required = false) List<String> files) {
+        if ((directory == null) == (files == null || files.isEmpty())) {
+            return errorResponse("directory と files のどちらか一方を指定してください");
+        }
+        
+        try {
+            BulkIngestResult result = directory != null
+                    ? bulkIngester.ingestDirectory(directory)
+                    : bulkIngester.ingestFiles(files);
             
-            // JSON応答を返す
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
-            response.put("data", rateHistory);
-            response.put("base", base);
-            
+            response.put("sheets", result.sheets());
+            response.put("rates", result.rates());
+            response.put("elapsedMillis", result.elapsedMillis());
             return ResponseEntity.ok(response);
-            
         } catch (Exception e) {
-            Map<String, Object> error = new HashMap<>();
-            error.put("success", false);
-            error.put("message", "レート情報の取得に失敗しました: " + e.getMessage());
-            return ResponseEntity.status(400).body(error);
+            return errorResponse("レート表の取り込みに失敗しました: " + e.getMessage());
         }
     }
-}
 
+    /**
+     * 履歴をJSON応答に変換する
+     * 日付ラベルと、通貨ごとのレート推移（欠損は null）を組み立てる
+     */
+    private ResponseEntity<Map<String, Object>> historyResponse(RateHistory history) {
+        List<String> dates = new ArrayList<>();
+        history.dates().forEach(date -> dates.add(date.toString()));
+        
+        Map<String, List<Double>> rateHistory = new LinkedHashMap<>();
+        history.series().forEach((currency, rates) -> {
+            List<Double> values = new ArrayList<>(rates.length);
+            for (double rate : rates) {
+                values.add(Double.isNaN(rate) ? null : rate);
+            }
+            rateHistory.put(currency, values);
+        });
+        
+        // JSON応答を返す
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("data", rateHistory);
+        response.put("dates", dates);
+        response.put("base", history.base());
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * 履歴がまだ記録されていない時のJSON応答（503 Service Unavailable と Retry-After）
+     * バックグラウンドの記録が終われば、同じリクエストで履歴を返せる
+     */
+    private ResponseEntity<Map<String, Object>> historyPendingResponse() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", false);
+        response.put("pending", true);
+        response.put("message", "為替レート履歴を準備中です。しばらくしてから再度お試しください。");
+        return ResponseEntity.status(503)
+                .header("Retry-After", Long.toString(HISTORY_RETRY_AFTER.toSeconds()))
+                .body(response);
+    }
+
+    /**
+     * データの種類・番号・更新日時から ETag（強い ETag）を作る
+     * URL ごとに比較されるので、同じ値なら同じ内容であることだけが分かればよい
+     * （番号は再起動で 1 に戻るため、更新日時も含めて前回の起動時の値と区別する）
+     * ビルド日時も含めるので、再デプロイした後は、データが同じでも前の版の画面とは別の値になる
+     * （前の版の画面は、もう配信していない CSS の URL を参照しているため使わせない）
+     */
+    private String etag(String kind, long version, long updatedAt) {
+        return "\"" + kind + "-" + Long.toHexString(deployedAt) + "-" + Long.toHexString(version)
+                + "-" + Long.toHexString(updatedAt) + "\"";
+    }
+
+    /**
+     * Last-Modified にする日時（データの更新日時とビルド日時の新しい方、ミリ秒）
+     * If-Modified-Since だけを送るブラウザにも、再デプロイ前の画面には 304 を返さない
+     */
+    private long lastModified(long updatedAt) {
+        return Math.max(updatedAt, deployedAt);
+    }
+
+    /**
+     * エラー時のJSON応答
+     */
+    private ResponseEntity<Map<String, Object>> errorResponse(String message) {
+        Map<String, Object> error = new HashMap<>();
+        error.put("success", false);
+        error.put("message", message);
+        return ResponseEntity.status(400).body(error);
+    }
+
+    /**
+     * CompletableFuture の例外（CompletionException）から元の例外のメッセージを取り出す
+     */
+    private static String rootMessage(Throwable e) {
+        return e instanceof CompletionException && e.getCause() != null ? e.getCause().getMessage() : e.getMessage();
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.model;
+
+import java.util.List;
+
+/**
+ * ===== BulkIngestResult レコード =====
+ * 複数の為替レート表（支店ごとのシートなど）をまとめて取り込んだ結果
+ *
+ * @param sheets        シートごとの取り込み結果
+ * @param rates         全シートの行をまとめた通貨ごとのレート
+ * @param elapsedMillis 全体の所要時間（ミリ秒）
+ */
+public record BulkIngestResult(List<SheetReport> sheets, List<ConsolidatedRate> rates, double elapsedMillis) {
+
+    /**
+     * シート1枚分の取り込み結果
+     * @param sheet       シートのファイル名
+     * @param rows        取り込んだ行数
+     * @param parseMillis 読み込みとパースにかかった時間（ミリ秒）
+     * @param error       失敗した場合のメッセージ（成功時は null）
+     */
+    public record SheetReport(String sheet, int rows, double parseMillis, String error) {
+    }
+
+    /**
+     * 通貨1つ分の集計結果
+     * @param currency 通貨
+     * @param count    この通貨のレートの件数（通常はこの通貨が載っていたシートの数）
+     * @param min      最小のレート
+     * @param max      最大のレート
+     * @param average  平均のレート
+     */
+    public record ConsolidatedRate(String currency, int count, double min, double max, double average) {
+    }
+}
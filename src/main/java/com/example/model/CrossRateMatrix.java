@@ -0,0 +1,72 @@
+package com.example.model;
+
+/**
+ * ===== CrossRateMatrix クラス =====
+ * 1つの基準通貨（JPY）のレートから、任意の2通貨間のレートを計算した表（クロスレート）
+ * matrix[base][quote] = 「base 1単位あたりの quote の量」
+ * JPY 基準のレートを r とすると、r[quote] / r[base] で求められる（三角裁定の関係）
+ * 番号は Currencies.CODES の位置
+ */
+public final class CrossRateMatrix {
+
+    private final LatestRates source;
+    private final double[][] matrix;
+
+    private CrossRateMatrix(LatestRates source, double[][] matrix) {
+        this.source = source;
+        this.matrix = matrix;
+    }
+
+    /**
+     * 基準となる1つのレートから、すべての通貨の組み合わせのレートを計算する
+     * @param source 基準通貨のレート（外部APIから取得したもの）
+     * @return クロスレート表
+     */
+    public static CrossRateMatrix of(LatestRates source) {
+        int n = Currencies.count();
+        double[] pivot = new double[n];
+        for (int i = 0; i < n; i++) {
+            pivot[i] = source.rate(i);
+        }
+
+        double[][] matrix = new double[n][n];
+        for (int base = 0; base < n; base++) {
+            // 割り算は1回だけにして、各行は掛け算で求める（レートが NaN の通貨は NaN のまま）
+            double inverse = 1.0 / pivot[base];
+            for (int quote = 0; quote < n; quote++) {
+                matrix[base][quote] = base == quote ? 1.0 : pivot[quote] * inverse;
+            }
+        }
+        return new CrossRateMatrix(source, matrix);
+    }
+
+    /**
+     * この表の元になったレート
+     */
+    public LatestRates source() {
+        return source;
+    }
+
+    /**
+     * base 1単位あたりの quote の量
+     * @param base  基準通貨の番号
+     * @param quote 相手通貨の番号
+     */
+    public double rate(int base, int quote) {
+        return matrix[base][quote];
+    }
+
+    /**
+     * 指定した基準通貨から見た全通貨のレートを返す（外部APIの /latest/{base} と同じ形）
+     * @param base 基準通貨（Currencies.CODES に含まれること）
+     * @return 全通貨のレート
+     */
+    public LatestRates ratesFor(String base) {
+        int index = Currencies.indexOf(base);
+        if (index < 0) {
+            throw new IllegalArgumentException("対応していない通貨コードです: " + base);
+        }
+        // 行の配列はこの表と共有する（LatestRates は読み取り専用なので変更されない）
+        return new LatestRates(base, source.date(), source.updatedAt(), matrix[index]);
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.model;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * ===== Currencies クラス =====
+ * このアプリで扱う通貨コードの一覧
+ * 外部APIの応答（約160通貨）のうち、ここに並ぶ通貨だけを読み取って保存する
+ * 各通貨には 0 から始まる番号を振り、レートは double[] の同じ位置に格納する
+ */
+public final class Currencies {
+
+    /** 扱う通貨コード（/exchange の主要通貨 + 履歴グラフの通貨 + 基準通貨として選べる通貨） */
+    public static final List<String> CODES = List.of(
+            "JPY", "USD", "EUR", "GBP", "CNY", "KRW", "AUD", "NZD", "CAD", "CHF", "HKD", "SGD");
+
+    private static final Map<String, Integer> INDEX = new HashMap<>();
+
+    /** 英大文字3文字の通貨コード（26^3 通り）ごとに、共有する String を1つだけ持つ表 */
+    private static final AtomicReferenceArray<String> INTERNED = new AtomicReferenceArray<>(26 * 26 * 26);
+
+    static {
+        for (int i = 0; i < CODES.size(); i++) {
+            INDEX.put(CODES.get(i), i);
+            INTERNED.set(slot(CODES.get(i)), CODES.get(i));
+        }
+    }
+
+    private Currencies() {
+    }
+
+    /**
+     * 通貨コードの番号を返す
+     * @param code 通貨コード
+     * @return 番号（扱わない通貨の場合は -1）
+     */
+    public static int indexOf(String code) {
+        Integer index = INDEX.get(code);
+        return index != null ? index : -1;
+    }
+
+    /**
+     * 通貨コードを共有の String にする
+     * 同じ通貨コードには常に同じ String を返すので、行ごとに文字列を作らずに済む
+     * （2回目以降は表を引くだけ）
+     * @param code 通貨コード（HTMLから切り出した文字列など）
+     * @return 共有の String（英大文字3文字でない場合は、そのまま String にしたもの）
+     */
+    public static String intern(CharSequence code) {
+        int slot = slot(code);
+        if (slot < 0) {
+            return code.toString();
+        }
+        String interned = INTERNED.get(slot);
+        if (interned == null) {
+            String created = code.toString();
+            interned = INTERNED.compareAndExchange(slot, null, created);
+            if (interned == null) {
+                interned = created;
+            }
+        }
+        return interned;
+    }
+
+    /**
+     * 英大文字3文字の通貨コードを 0 ～ 26^3-1 の番号にする（それ以外は -1）
+     */
+    private static int slot(CharSequence code) {
+        if (code.length() != 3) {
+            return -1;
+        }
+        int slot = 0;
+        for (int i = 0; i < 3; i++) {
+            char c = code.charAt(i);
+            if (c < 'A' || c > 'Z') {
+                return -1;
+            }
+            slot = slot * 26 + (c - 'A');
+        }
+        return slot;
+    }
+
+    /**
+     * 扱う通貨の数
+     */
+    public static int count() {
+        return CODES.size();
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.model;
+
+import java.time.LocalDate;
+
+/**
+ * ===== DateSexagenary レコード =====
+ * 日付から求めた干支（旧正月を考慮した年の干支と、日の干支）
+ * フォームの送信と干支の API で、日付を指定された場合の判定結果を同じ形で扱う
+ *
+ * @param date         指定された日付
+ * @param lunarYear    日付が属する旧暦の年（旧正月より前なら西暦の前の年）
+ * @param lunarNewYear その旧暦の年の旧正月の日付
+ * @param year         年の干支
+ * @param day          日の干支
+ */
+public record DateSexagenary(LocalDate date, int lunarYear, LocalDate lunarNewYear, Sexagenary year, Sexagenary day) {
+}
@@ -0,0 +1,78 @@
+package com.example.model;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * ===== LatestRates クラス =====
+ * 外部APIの /latest/{base} 応答を1回だけ読み取った結果
+ * 同じ応答から複数通貨のレートを取り出せるようにするための入れ物
+ * レートは Currencies.CODES と同じ並びの double[] で持つ（応答に含まれない通貨は NaN）
+ */
+public final class LatestRates {
+
+    private final String base;
+    private final LocalDate date;
+    private final Instant updatedAt;
+    private final double[] rates;
+
+    /**
+     * @param base      基準通貨（USD、JPY など）
+     * @param date      レートの基準日（APIの "date" 項目）
+     * @param updatedAt 外部APIがレートを更新した日時（APIの "time_last_updated" 項目）
+     * @param rates     Currencies.CODES の並びのレート（base 1単位あたり、コピーせずに保持するので渡した後は変更しないこと）
+     */
+    public LatestRates(String base, LocalDate date, Instant updatedAt, double[] rates) {
+        this.base = base;
+        this.date = date;
+        this.updatedAt = updatedAt;
+        this.rates = rates;
+    }
+
+    public String base() {
+        return base;
+    }
+
+    public LocalDate date() {
+        return date;
+    }
+
+    /**
+     * 外部APIがレートを更新した日時（レートが変わるたびに変わるので、ETag や Last-Modified に使う）
+     */
+    public Instant updatedAt() {
+        return updatedAt;
+    }
+
+    /**
+     * 指定した通貨のレートを返す
+     * @param currency 通貨コード
+     * @return レート（扱わない通貨や、応答に含まれない場合は NaN）
+     */
+    public double rate(String currency) {
+        int index = Currencies.indexOf(currency);
+        return index >= 0 ? rates[index] : Double.NaN;
+    }
+
+    /**
+     * 指定した番号（Currencies.CODES の位置）の通貨のレートを返す
+     */
+    public double rate(int index) {
+        return rates[index];
+    }
+
+    /**
+     * 通貨コード → レートの Map に変換する（JSON応答用、NaN の通貨は含めない）
+     */
+    public Map<String, Double> toMap() {
+        Map<String, Double> map = new LinkedHashMap<>();
+        for (int i = 0; i < rates.length; i++) {
+            if (!Double.isNaN(rates[i])) {
+                map.put(Currencies.CODES.get(i), rates[i]);
+            }
+        }
+        return map;
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.model;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ===== RateHistory レコード =====
+ * 履歴ストアから読み出した、基準通貨ごとのレート推移
+ *
+ * @param base   基準通貨
+ * @param dates  各データ点の日付（古い順）
+ * @param series 通貨コード → 日付ごとのレート（dates と同じ並び、欠損は NaN）
+ */
+public record RateHistory(String base, List<LocalDate> dates, Map<String, double[]> series) {
+}
@@ -0,0 +1,154 @@
+package com.example.model;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * ===== RateQuote レコード =====
+ * 1通貨分のレート（固定小数点）
+ *
+ * - 通貨コードは Currencies.intern() で共有の String にしたもの
+ * - レートは小数点以下4桁までの整数（1.2345 → 12345）で持つので、
+ *   比較や表示に double の丸めや String.format を使わずに済む
+ *
+ * @param currency 通貨コード
+ * @param scaled   レートを SCALE 倍した値
+ */
+public record RateQuote(String currency, long scaled) implements Comparable<RateQuote> {
+
+    /** 小数点以下の桁数 */
+    public static final int DECIMALS = 4;
+    /** レートの倍率（10^DECIMALS） */
+    public static final long SCALE = 10_000;
+
+    /**
+     * double のレートから作る（小数点以下5桁目を四捨五入）
+     * String.format("%.4f") と同じく、double を10進数で表記した桁で四捨五入する
+     * （Math.round(rate * SCALE) では 0.00565 が 56.49999… になり、0.0056 に切り捨てられてしまう）
+     * @param currency 通貨コード
+     * @param rate     レート（NaN や無限大は不可）
+     */
+    public static RateQuote of(String currency, double rate) {
+        if (Double.isNaN(rate) || Double.isInfinite(rate)) {
+            throw new IllegalArgumentException("レートが数値ではありません: " + currency + " " + rate);
+        }
+        long scaled = BigDecimal.valueOf(rate)
+                .setScale(DECIMALS, RoundingMode.HALF_UP)
+                .unscaledValue()
+                .longValueExact();
+        return new RateQuote(Currencies.intern(currency), scaled);
+    }
+
+    /**
+     * 表に書かれた文字列から作る（double を経由しない）
+     * @param currency 通貨コード
+     * @param rate     レート（「148.50」「1,234.5」など。小数点以下5桁目を四捨五入）
+     * @throws NumberFormatException レートが数値として読めない場合
+     */
+    public static RateQuote parse(CharSequence currency, CharSequence rate) {
+        return new RateQuote(Currencies.intern(currency), parseScaled(rate));
+    }
+
+    /**
+     * 10進数の文字列を SCALE 倍した整数にする
+     * 前後の空白と、整数部の桁区切りのカンマは無視する
+     */
+    public static long parseScaled(CharSequence text) {
+        int end = text.length();
+        while (end > 0 && Character.isWhitespace(text.charAt(end - 1))) {
+            end--;
+        }
+        int i = 0;
+        while (i < end && Character.isWhitespace(text.charAt(i))) {
+            i++;
+        }
+        boolean negative = false;
+        if (i < end && (text.charAt(i) == '-' || text.charAt(i) == '+')) {
+            negative = text.charAt(i) == '-';
+            i++;
+        }
+
+        long integer = 0;
+        int digits = 0;
+        for (; i < end && text.charAt(i) != '.'; i++) {
+            char c = text.charAt(i);
+            if (c == ',' && digits > 0) {
+                continue;
+            }
+            if (c < '0' || c > '9' || integer > (Long.MAX_VALUE / SCALE - 9) / 10) {
+                throw new NumberFormatException("レートとして読めません: " + text);
+            }
+            integer = integer * 10 + (c - '0');
+            digits++;
+        }
+
+        long fraction = 0;
+        int decimals = 0;
+        boolean roundUp = false;
+        if (i < end) {
+            for (i++; i < end; i++) {
+                char c = text.charAt(i);
+                if (c < '0' || c > '9') {
+                    throw new NumberFormatException("レートとして読めません: " + text);
+                }
+                if (decimals < DECIMALS) {
+                    fraction = fraction * 10 + (c - '0');
+                } else if (decimals == DECIMALS) {
+                    roundUp = c >= '5';
+                }
+                decimals++;
+                digits++;
+            }
+        }
+        if (digits == 0) {
+            throw new NumberFormatException("レートとして読めません: " + text);
+        }
+        for (int d = Math.min(decimals, DECIMALS); d < DECIMALS; d++) {
+            fraction *= 10;
+        }
+
+        long scaled = integer * SCALE + fraction + (roundUp ? 1 : 0);
+        return negative ? -scaled : scaled;
+    }
+
+    /**
+     * レートを double で返す（グラフやJSONに渡す場合など）
+     */
+    public double rate() {
+        return (double) scaled / SCALE;
+    }
+
+    /**
+     * レートを小数点以下4桁で書き出す（String.format("%.4f") と同じ表記、途中で文字列を作らない）
+     * @param out 書き出し先
+     * @return out
+     */
+    public StringBuilder appendRate(StringBuilder out) {
+        long value = scaled;
+        if (value < 0) {
+            out.append('-');
+            value = -value;
+        }
+        out.append(value / SCALE).append('.');
+        long fraction = value % SCALE;
+        for (long unit = SCALE / 10; unit > 0; unit /= 10) {
+            out.append((char) ('0' + fraction / unit));
+            fraction %= unit;
+        }
+        return out;
+    }
+
+    /**
+     * レートの小さい順（同じなら通貨コード順）
+     */
+    @Override
+    public int compareTo(RateQuote other) {
+        int byRate = Long.compare(scaled, other.scaled);
+        return byRate != 0 ? byRate : currency.compareTo(other.currency);
+    }
+
+    @Override
+    public String toString() {
+        return appendRate(new StringBuilder(currency.length() + 16).append(currency).append(": ")).toString();
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.model;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * ===== RateSheet レコード =====
+ * 為替レート表（exchange-rates.html）をスクレイピングした結果（不変のスナップショット）
+ *
+ * @param version   内容が変わるたびに1ずつ増える番号
+ * @param updatedAt 内容が変わった日時
+ * @param rows      表の各行（通貨とレート）
+ * @param text      ホーム画面に表示するテキスト
+ */
+public record RateSheet(long version, Instant updatedAt, List<Row> rows, String text) {
+
+    public RateSheet {
+        rows = List.copyOf(rows);
+    }
+
+    /**
+     * 表の1行
+     * @param currency 通貨（USD など、Currencies.intern() で共有の String にしたもの）
+     * @param rate     レート（表に書かれた文字列のまま）
+     * @param quote    固定小数点のレート（数値として読めない場合は null）
+     */
+    public record Row(String currency, String rate, RateQuote quote) {
+
+        /**
+         * スクレイピングで切り出した通貨とレートから作る
+         */
+        public static Row of(CharSequence currency, CharSequence rate) {
+            String code = Currencies.intern(currency);
+            RateQuote quote;
+            try {
+                quote = new RateQuote(code, RateQuote.parseScaled(rate));
+            } catch (NumberFormatException e) {
+                quote = null;
+            }
+            return new Row(code, rate.toString(), quote);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.model;
+
+import java.util.List;
+
+/**
+ * ===== RateSheetDelta レコード =====
+ * 為替レート表の前回のスナップショットからの差分
+ *
+ * @param fromVersion 前回のスナップショットの番号（初回は 0）
+ * @param toVersion   新しいスナップショットの番号
+ * @param added       追加された行
+ * @param changed     レートが変わった行
+ * @param removed     削除された行
+ */
+public record RateSheetDelta(long fromVersion, long toVersion,
+                             List<RateSheet.Row> added, List<Change> changed, List<RateSheet.Row> removed) {
+
+    public RateSheetDelta {
+        added = List.copyOf(added);
+        changed = List.copyOf(changed);
+        removed = List.copyOf(removed);
+    }
+
+    /**
+     * 差分がないかどうか（行の並び順が変わっただけの場合など）
+     */
+    public boolean isEmpty() {
+        return added.isEmpty() && changed.isEmpty() && removed.isEmpty();
+    }
+
+    /**
+     * レートが変わった行
+     * @param currency 通貨
+     * @param oldRate  前回のレート
+     * @param newRate  新しいレート
+     */
+    public record Change(String currency, String oldRate, String newRate) {
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.model;
+
+/**
+ * ===== Sexagenary レコード =====
+ * 干支（十干と十二支の組み合わせ、60通り）の1つ
+ * 60通りのインスタンスは SexagenaryCalendar があらかじめ作っておき、判定のたびに同じものを返す
+ *
+ * @param index  60周期の番号（0 = 甲子 ～ 59 = 癸亥）
+ * @param name   干支（甲子 など）
+ * @param stem   十干（甲、乙...）
+ * @param branch 十二支（子、丑...）
+ * @param animal 十二支の動物（鼠、牛...）
+ */
+public record Sexagenary(int index, String name, String stem, String branch, String animal) {
+}
@@ -0,0 +1,40 @@
+package com.example.scraping;
+
+import org.springframework.core.io.ClassPathResource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * ===== ClasspathRateSheetSource クラス =====
+ * クラスパス上のファイル（jar に含まれる exchange-rates.html など）から為替レート表を取得する
+ * jar の中身は実行中に変わらないため、読み込むのは最初の1回だけ
+ */
+public class ClasspathRateSheetSource implements RateSheetSource {
+
+    private final String location;
+    private boolean loaded;
+
+    public ClasspathRateSheetSource(String location) {
+        this.location = location;
+    }
+
+    @Override
+    public String description() {
+        return "classpath:" + location;
+    }
+
+    @Override
+    public synchronized CharSequence fetch() throws IOException {
+        if (loaded) {
+            return null;
+        }
+        try (InputStream in = new ClassPathResource(location).getInputStream()) {
+            CharSequence html = StandardCharsets.UTF_8.decode(ByteBuffer.wrap(in.readAllBytes()));
+            loaded = true;
+            return html;
+        }
+    }
+}
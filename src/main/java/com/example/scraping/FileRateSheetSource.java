@@ -0,0 +1,119 @@
+package com.example.scraping;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.zip.CRC32C;
+
+/**
+ * ===== FileRateSheetSource クラス =====
+ * ローカルファイルから為替レート表を取得する
+ *
+ * - ファイルはメモリマップで読み込む（デコード結果の CharBuffer はヒープに1つ作る）
+ * - 更新日時が前回と同じ場合は読み込まない
+ * - 更新日時が変わっても、内容のハッシュ（CRC32C、マップしたまま計算する）が前回と同じならデコードしない
+ *   （touch やエディタの上書き保存など、内容が変わらない更新では解析し直さない）
+ * - WatchService でファイルの変更を監視し、変更があれば登録された処理を呼ぶ（ホットリロード）
+ */
+public class FileRateSheetSource implements RateSheetSource, DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(FileRateSheetSource.class);
+
+    private final Path path;
+    private long loadedModified = -1;
+    private long loadedHash = -1;
+    private WatchService watchService;
+
+    public FileRateSheetSource(Path path) {
+        this.path = path.toAbsolutePath();
+    }
+
+    @Override
+    public String description() {
+        return "file:" + path;
+    }
+
+    @Override
+    public synchronized CharSequence fetch() throws IOException {
+        long modified = Files.getLastModifiedTime(path).toMillis();
+        if (modified == loadedModified) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer content = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            CRC32C crc = new CRC32C();
+            crc.update(content.duplicate());
+            long hash = crc.getValue();
+            loadedModified = modified;
+            if (hash == loadedHash) {
+                return null;
+            }
+            CharSequence html = StandardCharsets.UTF_8.decode(content);
+            loadedHash = hash;
+            return html;
+        }
+    }
+
+    /**
+     * ファイルのあるディレクトリの監視を開始し、ファイルが変更されたら listener を呼ぶ
+     */
+    @Override
+    public synchronized void onChange(Runnable listener) {
+        try {
+            watchService = FileSystems.getDefault().newWatchService();
+            path.getParent().register(watchService,
+                    StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY);
+        } catch (IOException e) {
+            // 監視できない場合は、定期的な取得だけで変更を反映する
+            log.warn("為替レート表の変更を監視できません: {}, {}", path, e.getMessage());
+            return;
+        }
+        Thread.ofPlatform().name("rate-sheet-watcher").daemon().start(() -> watch(listener));
+    }
+
+    private void watch(Runnable listener) {
+        Path fileName = path.getFileName();
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                boolean changed = false;
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (event.kind() == StandardWatchEventKinds.OVERFLOW || fileName.equals(event.context())) {
+                        changed = true;
+                    }
+                }
+                if (changed) {
+                    listener.run();
+                }
+                if (!key.reset()) {
+                    log.warn("為替レート表のディレクトリを監視できなくなりました: {}", path.getParent());
+                    return;
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // アプリ終了時
+        }
+    }
+
+    @Override
+    public void destroy() throws IOException {
+        if (watchService != null) {
+            watchService.close();
+        }
+    }
+}
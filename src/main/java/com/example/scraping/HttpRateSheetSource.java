@@ -0,0 +1,35 @@
+package com.example.scraping;
+
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+
+/**
+ * ===== HttpRateSheetSource クラス =====
+ * HTTP のURL（負荷試験用のスタブサーバーの /sheet など）から為替レート表を取得する
+ * 取得には外部API用の共有 RestTemplate（コネクションプール付き）を使う
+ */
+public class HttpRateSheetSource implements RateSheetSource {
+
+    private final RestTemplate restTemplate;
+    private final String url;
+
+    public HttpRateSheetSource(RestTemplate restTemplate, String url) {
+        this.restTemplate = restTemplate;
+        this.url = url;
+    }
+
+    @Override
+    public String description() {
+        return url;
+    }
+
+    @Override
+    public CharSequence fetch() throws IOException {
+        String html = restTemplate.getForObject(url, String.class);
+        if (html == null) {
+            throw new IOException("為替レート表の応答が空です: " + url);
+        }
+        return html;
+    }
+}
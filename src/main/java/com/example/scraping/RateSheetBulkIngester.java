@@ -0,0 +1,220 @@
+package com.example.scraping;
+
+import com.example.model.BulkIngestResult;
+import com.example.model.RateQuote;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.stream.Stream;
+
+/**
+ * ===== RateSheetBulkIngester クラス =====
+ * 支店ごとの為替レート表（exchange-rates.html と同じ形のHTML）をまとめて取り込む処理
+ *
+ * - シートの一覧を半分ずつに分けながら、ForkJoinPool で並列にパースする（分割統治）
+ * - 並列数は exchange.sheet.bulk-parallelism で制限する
+ * - 各シートの行を、通貨ごとのレート（件数・最小・最大・平均）にまとめる（集計は RateQuote の固定小数点で行う）
+ * - 読み込めるのは exchange.sheet.bulk-root の下にあるファイルだけ
+ *   （シンボリックリンクは辿った先の実際のパスで判定する。bulk-root の中のリンクから外のファイルは読まない）
+ */
+@Component
+public class RateSheetBulkIngester implements DisposableBean {
+
+    private final Path root;
+    private final ForkJoinPool pool;
+
+    public RateSheetBulkIngester(@Value("${exchange.sheet.bulk-root:rate-sheets}") Path root,
+                                 @Value("${exchange.sheet.bulk-parallelism:4}") int parallelism) {
+        this.root = root.toAbsolutePath().normalize();
+        this.pool = new ForkJoinPool(parallelism);
+    }
+
+    /**
+     * ディレクトリ内のすべてのシート（*.html）を取り込む
+     * @param directory bulk-root からの相対パス
+     * @return 取り込み結果
+     * @throws IOException ディレクトリを読めない場合
+     */
+    public BulkIngestResult ingestDirectory(String directory) throws IOException {
+        Path dir = resolve(directory);
+        List<Path> listed;
+        try (Stream<Path> files = Files.list(dir)) {
+            listed = files.filter(p -> p.getFileName().toString().endsWith(".html")).sorted().toList();
+        }
+        // ディレクトリの中のシートも、リンクで外を指していないかを1枚ずつ確かめる
+        List<Path> sheets = new ArrayList<>(listed.size());
+        for (Path sheet : listed) {
+            sheets.add(requireInsideRoot(sheet, dir.relativize(sheet).toString()));
+        }
+        return ingest(sheets);
+    }
+
+    /**
+     * 指定されたシートを取り込む
+     * @param files bulk-root からの相対パスの一覧
+     * @return 取り込み結果
+     * @throws IOException ファイルが存在しない場合など、実際のパスを確かめられない場合
+     */
+    public BulkIngestResult ingestFiles(List<String> files) throws IOException {
+        List<Path> sheets = new ArrayList<>(files.size());
+        for (String file : files) {
+            sheets.add(resolve(file));
+        }
+        return ingest(sheets);
+    }
+
+    private BulkIngestResult ingest(List<Path> sheets) {
+        long start = System.nanoTime();
+        Partial merged = pool.invoke(new IngestTask(sheets, 0, sheets.size()));
+
+        List<BulkIngestResult.ConsolidatedRate> rates = new ArrayList<>(merged.totals.size());
+        merged.totals.forEach((currency, total) -> rates.add(new BulkIngestResult.ConsolidatedRate(
+                currency, total.count, (double) total.min / RateQuote.SCALE, (double) total.max / RateQuote.SCALE,
+                (double) total.sum / total.count / RateQuote.SCALE)));
+        return new BulkIngestResult(merged.reports, rates, (System.nanoTime() - start) / 1e6);
+    }
+
+    /**
+     * bulk-root からの相対パスを実際のパスにする（bulk-root の外を指すパスは受け付けない）
+     */
+    private Path resolve(String relative) throws IOException {
+        Path path = root.resolve(relative).normalize();
+        if (!path.startsWith(root)) {
+            throw new IllegalArgumentException("取り込めるのは " + root + " の下のファイルだけです: " + relative);
+        }
+        return requireInsideRoot(path, relative);
+    }
+
+    /**
+     * シンボリックリンクを辿った実際のパスが、bulk-root（これも実際のパス）の下にあることを確かめる
+     * normalize() だけでは、bulk-root の中に置かれた外を指すリンクを見分けられない
+     * @return 実際のパス（以降はこのパスを読む）
+     */
+    private Path requireInsideRoot(Path path, String name) throws IOException {
+        Path real = path.toRealPath();
+        if (!real.startsWith(root.toRealPath())) {
+            throw new IllegalArgumentException("取り込めるのは " + root + " の下のファイルだけです: " + name);
+        }
+        return real;
+    }
+
+    /**
+     * シート1枚を読み込んでパースし、通貨ごとに集計する
+     */
+    private static Partial parseSheet(Path sheet) {
+        Partial partial = new Partial();
+        long start = System.nanoTime();
+        try {
+            CharSequence html = StandardCharsets.UTF_8.decode(ByteBuffer.wrap(Files.readAllBytes(sheet)));
+            int[] rows = new int[1];
+            RateTableScanner.scan(html, (currency, rate) -> {
+                rows[0]++;
+                try {
+                    RateQuote quote = RateQuote.parse(currency, rate);
+                    partial.totals.computeIfAbsent(quote.currency(), c -> new Total()).add(quote.scaled());
+                } catch (NumberFormatException e) {
+                    // 数値でないレートは集計しない
+                }
+            });
+            partial.reports.add(new BulkIngestResult.SheetReport(
+                    sheet.getFileName().toString(), rows[0], (System.nanoTime() - start) / 1e6, null));
+        } catch (IOException e) {
+            partial.reports.add(new BulkIngestResult.SheetReport(
+                    sheet.getFileName().toString(), 0, (System.nanoTime() - start) / 1e6, e.getClass().getSimpleName() + ": " + e.getMessage()));
+        }
+        return partial;
+    }
+
+    @Override
+    public void destroy() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * シートの一覧の [from, to) を取り込むタスク
+     * 1枚になるまで半分に分けて並列に実行し、結果を合わせる
+     */
+    private static final class IngestTask extends RecursiveTask<Partial> {
+
+        private final List<Path> sheets;
+        private final int from;
+        private final int to;
+
+        IngestTask(List<Path> sheets, int from, int to) {
+            this.sheets = sheets;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Partial compute() {
+            if (to - from == 0) {
+                return new Partial();
+            }
+            if (to - from == 1) {
+                return parseSheet(sheets.get(from));
+            }
+            int middle = (from + to) >>> 1;
+            IngestTask left = new IngestTask(sheets, from, middle);
+            left.fork();
+            Partial right = new IngestTask(sheets, middle, to).compute();
+            return left.join().merge(right);
+        }
+    }
+
+    /**
+     * 一部のシートの取り込み結果（シートごとの報告と、通貨ごとの集計）
+     */
+    private static final class Partial {
+
+        final List<BulkIngestResult.SheetReport> reports = new ArrayList<>();
+        final Map<String, Total> totals = new TreeMap<>();
+
+        /**
+         * 右側（後ろのシート）の結果を合わせる（シートの並び順は保つ）
+         */
+        Partial merge(Partial right) {
+            reports.addAll(right.reports);
+            right.totals.forEach((currency, total) -> totals.merge(currency, total, Total::merge));
+            return this;
+        }
+    }
+
+    /**
+     * 通貨1つ分の集計（件数・最小・最大・合計、レートは RateQuote と同じ固定小数点）
+     */
+    private static final class Total {
+
+        int count;
+        long min = Long.MAX_VALUE;
+        long max = Long.MIN_VALUE;
+        long sum;
+
+        void add(long value) {
+            count++;
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+            sum += value;
+        }
+
+        Total merge(Total other) {
+            count += other.count;
+            min = Math.min(min, other.min);
+            max = Math.max(max, other.max);
+            sum += other.sum;
+            return this;
+        }
+    }
+}
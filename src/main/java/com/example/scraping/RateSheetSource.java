@@ -0,0 +1,30 @@
+package com.example.scraping;
+
+import java.io.IOException;
+
+/**
+ * ===== RateSheetSource インターフェース =====
+ * 為替レート表（HTML）の取得元
+ * クラスパス・ローカルファイル・HTTP のURLなど、取得元ごとに実装を切り替えられるようにする
+ */
+public interface RateSheetSource {
+
+    /**
+     * ログなどに表示する取得元の説明
+     */
+    String description();
+
+    /**
+     * 為替レート表のHTMLを取得する
+     * @return HTML（前回から変更がないことが分かっている場合は null）
+     * @throws IOException 取得できない場合
+     */
+    CharSequence fetch() throws IOException;
+
+    /**
+     * 取得元が変更された時に呼ばれる処理を登録する（変更を検知できる取得元だけが対応する）
+     * @param listener 変更時に呼ばれる処理
+     */
+    default void onChange(Runnable listener) {
+    }
+}
@@ -0,0 +1,352 @@
+package com.example.scraping;
+
+/**
+ * ===== RateTableScanner クラス =====
+ * 為替レート表のHTMLを先頭から1文字ずつ読み、表の行（通貨とレート）を見つけるたびに通知するスキャナー
+ * Jsoup.parse のようにDOMツリーを作らず、CSSセレクタ（"table tr"、"td"）の照合も行わない
+ *
+ * 抽出のルールは従来の Jsoup での処理と同じ:
+ *   - table の中の tr を順に数え、最初の行（見出し行）は読み飛ばす
+ *   - td がちょうど2つある行だけを（通貨, レート）として通知する（th は数えない）
+ *   - セルの文字列は Jsoup の text() と同じく、タグを除き、文字参照を戻し、空白をまとめて前後を削る
+ *
+ * HTML は CharSequence（String や、ファイルをデコードした CharBuffer）のまま読むので、全体をコピーしない
+ * セルの文字列は使い回すバッファに入れるため、1行ごとの文字列の割り当ても発生しない
+ */
+public final class RateTableScanner {
+
+    /**
+     * 行を受け取る処理
+     * 渡される CharSequence は次の行の読み取りで上書きされるため、保持する場合は toString() すること
+     */
+    @FunctionalInterface
+    public interface RowHandler {
+        void row(CharSequence currency, CharSequence rate);
+    }
+
+    private static final int NO_CELL = 0;
+    private static final int TD = 1;
+    private static final int TH = 2;
+
+    private final CharSequence html;
+    private final RowHandler handler;
+
+    private int tableDepth;
+    private boolean inRow;
+    private int rowIndex = -1;
+    private int cellKind = NO_CELL;
+    private int tdCount;
+    private boolean pendingSpace;
+
+    private final StringBuilder cell = new StringBuilder(32);
+    private final StringBuilder currency = new StringBuilder(16);
+    private final StringBuilder rate = new StringBuilder(16);
+
+    private RateTableScanner(CharSequence html, RowHandler handler) {
+        this.html = html;
+        this.handler = handler;
+    }
+
+    /**
+     * HTMLを読み、表の行を見つけるたびに handler に通知する
+     * @param html    為替レート表のHTML
+     * @param handler 行を受け取る処理
+     */
+    public static void scan(CharSequence html, RowHandler handler) {
+        new RateTableScanner(html, handler).run();
+    }
+
+    private void run() {
+        int length = html.length();
+        int i = 0;
+        while (i < length) {
+            char c = html.charAt(i);
+            if (c == '<') {
+                i = readMarkup(i);
+            } else if (c == '&') {
+                i = readCharacterReference(i);
+            } else {
+                appendText(c);
+                i++;
+            }
+        }
+        endRow();
+    }
+
+    /**
+     * '<' から始まるタグ・コメントを読み、表の構造（table、tr、td、th）に応じて状態を変える
+     * @return タグの次の位置
+     */
+    private int readMarkup(int start) {
+        int length = html.length();
+        if (startsWith(start, "<!--")) {
+            int end = indexOf("-->", start + 4);
+            return end < 0 ? length : end + 3;
+        }
+
+        int i = start + 1;
+        boolean closing = i < length && html.charAt(i) == '/';
+        if (closing) {
+            i++;
+        }
+        int nameStart = i;
+        while (i < length && isNameChar(html.charAt(i))) {
+            i++;
+        }
+        int nameLength = i - nameStart;
+
+        if (nameLength == 0) {
+            if (i < length && (html.charAt(i) == '!' || html.charAt(i) == '?')) {
+                // <!DOCTYPE ...> などは読み飛ばす
+                return skipTag(i);
+            }
+            // タグではない '<' は文字として扱う
+            appendText('<');
+            return start + 1;
+        }
+
+        int end = skipTag(i);
+        if (closing) {
+            closeTag(nameStart, nameLength);
+        } else {
+            openTag(nameStart, nameLength);
+            if (nameIs(nameStart, nameLength, "script") || nameIs(nameStart, nameLength, "style")) {
+                // スクリプトとスタイルの中身は文字として扱わない
+                int close = indexOfIgnoreCase("</" + html.subSequence(nameStart, nameStart + nameLength), end);
+                return close < 0 ? length : skipTag(close + 2);
+            }
+        }
+        return end;
+    }
+
+    private void openTag(int nameStart, int nameLength) {
+        if (nameIs(nameStart, nameLength, "table")) {
+            endRow();
+            tableDepth++;
+        } else if (tableDepth == 0) {
+            return;
+        } else if (nameIs(nameStart, nameLength, "tr")) {
+            endRow();
+            inRow = true;
+        } else if (nameIs(nameStart, nameLength, "td")) {
+            startCell(TD);
+        } else if (nameIs(nameStart, nameLength, "th")) {
+            startCell(TH);
+        } else if (isBreakingTag(nameStart, nameLength)) {
+            // <br> や <p> などは、Jsoup の text() と同じく空白として扱う
+            appendText(' ');
+        }
+    }
+
+    private void closeTag(int nameStart, int nameLength) {
+        if (nameIs(nameStart, nameLength, "table")) {
+            endRow();
+            tableDepth = Math.max(tableDepth - 1, 0);
+        } else if (tableDepth == 0) {
+            return;
+        } else if (nameIs(nameStart, nameLength, "tr")) {
+            endRow();
+        } else if (nameIs(nameStart, nameLength, "td") || nameIs(nameStart, nameLength, "th")) {
+            endCell();
+        } else if (isBreakingTag(nameStart, nameLength)) {
+            appendText(' ');
+        }
+    }
+
+    private void startCell(int kind) {
+        endCell();
+        if (!inRow) {
+            // tr が省略されている場合も、新しい行として扱う
+            inRow = true;
+        }
+        cellKind = kind;
+        cell.setLength(0);
+        pendingSpace = false;
+    }
+
+    private void endCell() {
+        if (cellKind == TD) {
+            tdCount++;
+            if (tdCount == 1) {
+                currency.setLength(0);
+                currency.append(cell);
+            } else if (tdCount == 2) {
+                rate.setLength(0);
+                rate.append(cell);
+            }
+        }
+        cellKind = NO_CELL;
+    }
+
+    private void endRow() {
+        endCell();
+        if (inRow) {
+            rowIndex++;
+            // 最初の行は見出し行なので読み飛ばす
+            if (rowIndex > 0 && tdCount == 2) {
+                handler.row(currency, rate);
+            }
+        }
+        inRow = false;
+        tdCount = 0;
+    }
+
+    /**
+     * セルの中の文字を追加する（連続する空白は1つにまとめ、先頭の空白は捨てる）
+     */
+    private void appendText(char c) {
+        if (cellKind == NO_CELL) {
+            return;
+        }
+        if (Character.isWhitespace(c) || c == ' ') {
+            pendingSpace = cell.length() > 0;
+            return;
+        }
+        if (pendingSpace) {
+            cell.append(' ');
+            pendingSpace = false;
+        }
+        cell.append(c);
+    }
+
+    /**
+     * '&' から始まる文字参照（&amp;amp; &amp;#165; など）を読み、元の文字に戻して追加する
+     * @return 文字参照の次の位置
+     */
+    private int readCharacterReference(int start) {
+        // 文字参照は短いので、';' は近くだけを探す（見つからなければ '&' は文字として扱う）
+        int end = -1;
+        for (int i = start + 1; i < Math.min(start + 12, html.length()); i++) {
+            if (html.charAt(i) == ';') {
+                end = i;
+                break;
+            }
+        }
+        if (end < 0) {
+            appendText('&');
+            return start + 1;
+        }
+
+        int decoded = -1;
+        if (start + 1 < end && html.charAt(start + 1) == '#') {
+            decoded = parseNumericReference(start + 2, end);
+        } else if (regionIs(start + 1, end, "amp")) {
+            decoded = '&';
+        } else if (regionIs(start + 1, end, "lt")) {
+            decoded = '<';
+        } else if (regionIs(start + 1, end, "gt")) {
+            decoded = '>';
+        } else if (regionIs(start + 1, end, "quot")) {
+            decoded = '"';
+        } else if (regionIs(start + 1, end, "apos")) {
+            decoded = '\'';
+        } else if (regionIs(start + 1, end, "nbsp")) {
+            decoded = ' ';
+        } else if (regionIs(start + 1, end, "yen")) {
+            decoded = '¥';
+        }
+
+        if (decoded < 0) {
+            // 知らない文字参照はそのまま文字として扱う
+            appendText('&');
+            return start + 1;
+        }
+        if (Character.isBmpCodePoint(decoded)) {
+            appendText((char) decoded);
+        } else {
+            appendText(Character.highSurrogate(decoded));
+            appendText(Character.lowSurrogate(decoded));
+        }
+        return end + 1;
+    }
+
+    private int parseNumericReference(int start, int end) {
+        int radix = 10;
+        if (start < end && (html.charAt(start) == 'x' || html.charAt(start) == 'X')) {
+            radix = 16;
+            start++;
+        }
+        if (start == end) {
+            return -1;
+        }
+        int value = 0;
+        for (int i = start; i < end; i++) {
+            int digit = Character.digit(html.charAt(i), radix);
+            if (digit < 0) {
+                return -1;
+            }
+            value = value * radix + digit;
+        }
+        return Character.isValidCodePoint(value) ? value : -1;
+    }
+
+    /**
+     * タグの終わり（'>'）の次の位置を返す（属性値の中の '>' は無視する）
+     */
+    private int skipTag(int from) {
+        int length = html.length();
+        char quote = 0;
+        for (int i = from; i < length; i++) {
+            char c = html.charAt(i);
+            if (quote != 0) {
+                if (c == quote) {
+                    quote = 0;
+                }
+            } else if (c == '"' || c == '\'') {
+                quote = c;
+            } else if (c == '>') {
+                return i + 1;
+            }
+        }
+        return length;
+    }
+
+    private boolean isBreakingTag(int nameStart, int nameLength) {
+        return nameIs(nameStart, nameLength, "br")
+                || nameIs(nameStart, nameLength, "p")
+                || nameIs(nameStart, nameLength, "div")
+                || nameIs(nameStart, nameLength, "li");
+    }
+
+    private static boolean isNameChar(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9');
+    }
+
+    private boolean nameIs(int start, int length, String name) {
+        return length == name.length() && regionIs(start, start + length, name);
+    }
+
+    /**
+     * html[start, end) が name と一致するか（英字の大文字・小文字は区別しない）
+     */
+    private boolean regionIs(int start, int end, String name) {
+        if (end - start != name.length()) {
+            return false;
+        }
+        for (int i = 0; i < name.length(); i++) {
+            if (Character.toLowerCase(html.charAt(start + i)) != name.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean startsWith(int start, String prefix) {
+        return start + prefix.length() <= html.length() && regionIs(start, start + prefix.length(), prefix);
+    }
+
+    private int indexOf(String target, int from) {
+        int last = html.length() - target.length();
+        for (int i = from; i <= last; i++) {
+            if (startsWith(i, target)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private int indexOfIgnoreCase(CharSequence target, int from) {
+        String lower = target.toString().toLowerCase();
+        return indexOf(lower, from);
+    }
+}
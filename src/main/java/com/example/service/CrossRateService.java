@@ -0,0 +1,53 @@
+package com.example.service;
+
+import com.example.model.CrossRateMatrix;
+import com.example.model.LatestRates;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * ===== CrossRateService クラス =====
+ * 外部APIからは JPY 基準のレートだけを取得し、ほかの基準通貨のレートはクロスレートで計算するサービス
+ * 利用者がどの基準通貨を指定しても、外部APIへの通信回数は増えない
+ */
+@Service
+public class CrossRateService {
+
+    /** 外部APIから取得する唯一の基準通貨 */
+    public static final String AUTHORITATIVE_BASE = "JPY";
+
+    private final LatestRatesCache latestRatesCache;
+
+    /** 最後に計算したクロスレート表（元のレートが同じ間は使い回す） */
+    private final AtomicReference<CrossRateMatrix> current = new AtomicReference<>();
+
+    public CrossRateService(LatestRatesCache latestRatesCache) {
+        this.latestRatesCache = latestRatesCache;
+    }
+
+    /**
+     * 基準通貨の最新レートを非同期で取得する（JPY 基準のレートから計算する）
+     * @param base 基準通貨（Currencies.CODES に含まれること）
+     * @return 全通貨のレート
+     */
+    public CompletableFuture<LatestRates> getAsync(String base) {
+        return latestRatesCache.getAsync(AUTHORITATIVE_BASE)
+                .thenApply(source -> matrixFor(source).ratesFor(base));
+    }
+
+    /**
+     * レートに対応するクロスレート表を返す
+     * キャッシュのレートが更新された時だけ表を作り直す
+     */
+    private CrossRateMatrix matrixFor(LatestRates source) {
+        CrossRateMatrix matrix = current.get();
+        if (matrix != null && matrix.source() == source) {
+            return matrix;
+        }
+        CrossRateMatrix rebuilt = CrossRateMatrix.of(source);
+        current.set(rebuilt);
+        return rebuilt;
+    }
+}
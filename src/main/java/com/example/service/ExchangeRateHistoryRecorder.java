@@ -0,0 +1,70 @@
+package com.example.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * ===== ExchangeRateHistoryRecorder クラス =====
+ * JPY 基準の最新レートを取得して、履歴ストアに1日1件ずつ記録するバックグラウンド処理
+ * ほかの基準通貨の履歴は JPY 基準の履歴から計算するため、記録のための通信は1日1回で済む
+ *
+ * キャッシュは refreshAfterWrite で古い値を返しつつ裏で再取得するため、キャッシュ経由では前日の値を記録しかねない
+ * 記録は必ず外部APIから取得し、取得したレートでキャッシュも新しくする
+ */
+@Component
+public class ExchangeRateHistoryRecorder {
+
+    private static final Logger log = LoggerFactory.getLogger(ExchangeRateHistoryRecorder.class);
+
+    private final ExchangeRateService exchangeRateService;
+    private final LatestRatesCache latestRatesCache;
+    private final ExchangeRateHistoryStore historyStore;
+
+    public ExchangeRateHistoryRecorder(ExchangeRateService exchangeRateService,
+                                       LatestRatesCache latestRatesCache,
+                                       ExchangeRateHistoryStore historyStore) {
+        this.exchangeRateService = exchangeRateService;
+        this.latestRatesCache = latestRatesCache;
+        this.historyStore = historyStore;
+    }
+
+    /**
+     * アプリ起動直後に、最新レートを記録する
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void recordOnStartup() {
+        recordNow();
+    }
+
+    /**
+     * 1日1回、最新レートのスナップショットを記録する
+     */
+    @Scheduled(cron = "${exchange.history.cron:0 5 0 * * *}")
+    public void recordDaily() {
+        recordNow().join();
+    }
+
+    /**
+     * 最新レートを外部APIから非同期で取得して記録し、キャッシュにも入れる
+     * 取得に失敗した日は記録しない（次回のスケジュールで再取得する。キャッシュはそのまま）
+     * @return 記録が終わると完了する CompletableFuture（失敗しても例外にはならない）
+     */
+    public CompletableFuture<Void> recordNow() {
+        return exchangeRateService.getLatestRatesAsync(CrossRateService.AUTHORITATIVE_BASE)
+                .thenAccept(rates -> {
+                    // 履歴が読めるようになった時には、キャッシュも同じレートを返すように先に入れる
+                    latestRatesCache.put(rates);
+                    historyStore.record(rates);
+                })
+                .exceptionally(e -> {
+                    log.warn("為替レート履歴の記録に失敗しました: {}", e.getMessage());
+                    return null;
+                });
+    }
+}
@@ -0,0 +1,136 @@
+package com.example.service;
+
+import com.example.model.Currencies;
+import com.example.model.LatestRates;
+import com.example.model.RateHistory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * ===== ExchangeRateHistoryStore クラス =====
+ * 日付ごとのレートをメモリ上に保存する履歴ストア
+ * 1日1件、JPY 基準のスナップショット（Currencies.CODES の全通貨）を通貨ごとの double[] リングバッファに記録する
+ * （List&lt;Double&gt; だと1点ごとにボクシングされたオブジェクトが作られるため）
+ * ほかの基準通貨の履歴は、読み出す時に同じ日の JPY 基準のレートからクロスレートで計算する
+ * 古い日付は、容量を超えた時点で上書きされる
+ */
+@Component
+public class ExchangeRateHistoryStore {
+
+    /** 履歴を返す通貨（グラフに表示する通貨） */
+    public static final List<String> CURRENCIES = List.of("USD", "EUR", "AUD", "NZD");
+
+    /** 日付（エポック日） */
+    private final long[] epochDays;
+    /** rates[通貨の番号][slot] = その日の JPY 基準のレート */
+    private final double[][] rates;
+    /** 次に書き込む位置 */
+    private int next;
+    /** 記録済みのデータ点の数 */
+    private int size;
+    /** 記録した内容が変わるたびに1ずつ増える番号（ETag に使う） */
+    private long version;
+    /** 最後に記録した日時（Last-Modified に使う） */
+    private Instant updatedAt = Instant.EPOCH;
+
+    public ExchangeRateHistoryStore(@Value("${exchange.history.days:30}") int capacity) {
+        this.epochDays = new long[capacity];
+        this.rates = new double[Currencies.count()][capacity];
+    }
+
+    /**
+     * 最新レートを、その基準日のデータ点として記録する
+     * 同じ日付を再度記録した場合は上書き、過去の日付は無視する
+     * @param latest 外部APIから取得した JPY 基準の最新レート
+     */
+    public synchronized void record(LatestRates latest) {
+        if (!CrossRateService.AUTHORITATIVE_BASE.equals(latest.base())) {
+            throw new IllegalArgumentException("履歴には " + CrossRateService.AUTHORITATIVE_BASE
+                    + " 基準のレートだけを記録できます: " + latest.base());
+        }
+
+        long epochDay = latest.date().toEpochDay();
+        int slot;
+        if (size > 0 && epochDays[lastSlot()] == epochDay) {
+            // 同じ日付は最新の値で上書きする
+            slot = lastSlot();
+        } else if (size > 0 && epochDays[lastSlot()] > epochDay) {
+            // 記録済みより古い日付は捨てる
+            return;
+        } else {
+            slot = next;
+            next = (next + 1) % epochDays.length;
+            size = Math.min(size + 1, epochDays.length);
+        }
+
+        epochDays[slot] = epochDay;
+        for (int c = 0; c < rates.length; c++) {
+            rates[c][slot] = latest.rate(c);
+        }
+        version++;
+        updatedAt = latest.updatedAt();
+    }
+
+    /**
+     * 記録した内容の番号（まだ1件も記録されていない場合は 0）
+     */
+    public synchronized long version() {
+        return version;
+    }
+
+    /**
+     * 最後に記録したレートを外部APIが更新した日時
+     */
+    public synchronized Instant updatedAt() {
+        return updatedAt;
+    }
+
+    /**
+     * 直近の履歴を読み出す（外部APIには一切アクセスしない）
+     * @param base 基準通貨（Currencies.CODES に含まれること）
+     * @param days 読み出す日数（最大で保存している日数まで）
+     * @return 履歴（まだ1件も記録されていない場合は空）
+     */
+    public synchronized Optional<RateHistory> read(String base, int days) {
+        int baseIndex = Currencies.indexOf(base);
+        if (baseIndex < 0) {
+            throw new IllegalArgumentException("対応していない通貨コードです: " + base);
+        }
+        if (size == 0) {
+            return Optional.empty();
+        }
+
+        int count = Math.min(Math.max(days, 0), size);
+        int start = Math.floorMod(next - count, epochDays.length);
+
+        List<LocalDate> dates = new ArrayList<>(count);
+        double[][] series = new double[CURRENCIES.size()][count];
+        for (int i = 0; i < count; i++) {
+            int slot = (start + i) % epochDays.length;
+            dates.add(LocalDate.ofEpochDay(epochDays[slot]));
+            // その日の JPY 基準のレートから、base 1単位あたりのレートを計算する
+            double inverse = 1.0 / rates[baseIndex][slot];
+            for (int q = 0; q < series.length; q++) {
+                series[q][i] = rates[Currencies.indexOf(CURRENCIES.get(q))][slot] * inverse;
+            }
+        }
+
+        Map<String, double[]> result = new LinkedHashMap<>();
+        for (int q = 0; q < series.length; q++) {
+            result.put(CURRENCIES.get(q), series[q]);
+        }
+        return Optional.of(new RateHistory(base, dates, result));
+    }
+
+    private int lastSlot() {
+        return Math.floorMod(next - 1, epochDays.length);
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.service;
+
+import com.example.model.LatestRates;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * ===== ExchangeRateService クラス =====
+ * 外部API（exchangerate-api.com、URLは exchange.api.base-url で変更可能）から最新の為替レートを取得するサービス
+ * 1回のリクエストにつき、基準通貨ごとに「1回だけ通信して1回だけ読み取る」
+ * 複数の通貨・日付のレートは、この1回分の結果から取り出して使う
+ * 同じ基準通貨への同時リクエストは、呼び出し元の LatestRatesCache（Caffeine）が1回の取得にまとめる
+ *
+ * メトリクス:
+ *   - exchange.upstream.flights: 外部APIへ実際に通信した回数
+ * 通信には HttpClientConfig で作った共有の RestTemplate（コネクションプール付き）を使う
+ */
+@Service
+public class ExchangeRateService {
+
+    private final RestTemplate restTemplate;
+    /** 最新レート取得APIのURL（末尾に基準通貨コードを付ける） */
+    private final String latestUrl;
+    private final FanOutExecutor fanOutExecutor;
+    private final Counter flights;
+
+    public ExchangeRateService(@Qualifier("upstreamRestTemplate") RestTemplate restTemplate,
+                               @Value("${exchange.api.base-url:https://api.exchangerate-api.com/v4}") String baseUrl,
+                               FanOutExecutor fanOutExecutor,
+                               MeterRegistry meterRegistry) {
+        this.restTemplate = restTemplate;
+        this.latestUrl = baseUrl + "/latest/{base}";
+        this.fanOutExecutor = fanOutExecutor;
+        this.flights = Counter.builder("exchange.upstream.flights")
+                .description("外部APIへ実際に通信した回数")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 基準通貨の最新レートを非同期で取得する（呼ぶたびに外部APIへ通信する）
+     * 通常は LatestRatesCache を通して呼ぶ（同時の呼び出しはキャッシュが1回にまとめる）
+     * @param base 基準通貨（USD、JPY など）
+     * @return 全通貨のレート
+     */
+    public CompletableFuture<LatestRates> getLatestRatesAsync(String base) {
+        return fanOutExecutor.submit(() -> fetchLatestRates(base));
+    }
+
+    /**
+     * 外部APIから基準通貨の最新レートを取得する
+     * 外部APIへの通信とJSONの読み取りは、この呼び出しにつき1回だけ行う
+     * @param base 基準通貨（USD、JPY など）
+     * @return 全通貨のレート
+     */
+    private LatestRates fetchLatestRates(String base) {
+        flights.increment();
+        // 応答本文を文字列にせず、ストリームのまま必要な通貨のレートだけを読み取る
+        LatestRates latest = restTemplate.execute(latestUrl, HttpMethod.GET, null,
+                response -> RateJsonExtractor.extract(response.getBody(), base), base);
+        if (latest == null) {
+            throw new IllegalStateException("外部APIの応答が空です: " + base);
+        }
+        return latest;
+    }
+}
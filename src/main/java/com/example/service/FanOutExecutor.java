@@ -0,0 +1,52 @@
+package com.example.service;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
+
+/**
+ * ===== FanOutExecutor クラス =====
+ * 互いに独立した外部APIへの通信（基準通貨ごと・日付ごとなど）を並列に実行する仕組み
+ * Java 21 の仮想スレッドで1タスク1スレッドとして実行するため、通信待ちの間もOSスレッドを占有しない
+ * 全体の所要時間は「全通信の合計」ではなく「一番遅い1回の通信」で決まる
+ * 同時に実行する数は max-concurrency で制限する（外部APIやコネクションプールに負荷をかけすぎないため）
+ */
+@Component
+public class FanOutExecutor implements DisposableBean {
+
+    private final ExecutorService executor =
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("fan-out-", 0).factory());
+    private final Semaphore permits;
+
+    public FanOutExecutor(@Value("${exchange.fanout.max-concurrency:16}") int maxConcurrency) {
+        this.permits = new Semaphore(maxConcurrency);
+    }
+
+    /**
+     * タスクを仮想スレッドで実行する（同時実行数の上限に達していれば空くまで待つ）
+     * @param task 実行する処理
+     * @return 処理結果
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> task) {
+        return CompletableFuture.supplyAsync(() -> {
+            // 待つのは仮想スレッドなので、呼び出し元やOSスレッドはブロックしない
+            permits.acquireUninterruptibly();
+            try {
+                return task.get();
+            } finally {
+                permits.release();
+            }
+        }, executor);
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+}
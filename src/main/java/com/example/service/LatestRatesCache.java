@@ -0,0 +1,87 @@
+package com.example.service;
+
+import com.example.config.ExchangeRateCacheProperties;
+import com.example.model.LatestRates;
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * ===== LatestRatesCache クラス =====
+ * 基準通貨ごとの最新レートを保持するキャッシュ
+ * 外部APIのレートは1日に数回しか更新されないため、毎回通信せずにキャッシュから返す
+ *
+ * - 件数の上限（maxEntries）と有効期間（ttl）で古いエントリを破棄する
+ * - 有効期間の refreshThreshold を過ぎたエントリは、古い値を返しつつ裏で再取得する
+ *   （リクエスト処理中のスレッドが外部APIを待つのは、初回取得と期限切れの時だけ）
+ * - 同じ基準通貨の取得中に来た呼び出しは、新しく通信せずに取得中の CompletableFuture を共有する（Caffeine の機能）
+ *
+ * メトリクス:
+ *   - exchange.upstream.coalesced: 取得中の通信に相乗りした呼び出しの数（取得を始めた本人とキャッシュ済みの値の読み出しは含まない）
+ */
+@Component
+public class LatestRatesCache {
+
+    private final AsyncLoadingCache<String, LatestRates> cache;
+    private final Counter coalesced;
+
+    public LatestRatesCache(ExchangeRateService exchangeRateService,
+                            ExchangeRateCacheProperties properties,
+                            MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.maxEntries())
+                .expireAfterWrite(properties.ttl())
+                .refreshAfterWrite(properties.refreshAfter())
+                .buildAsync((base, loaderExecutor) -> exchangeRateService.getLatestRatesAsync(base));
+        this.coalesced = Counter.builder("exchange.upstream.coalesced")
+                .description("取得中の通信に相乗りした呼び出しの数")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 基準通貨の最新レートを非同期で取得する（キャッシュにあればそれを返す）
+     * @param base 基準通貨
+     * @return 全通貨のレート
+     */
+    public CompletableFuture<LatestRates> getAsync(String base) {
+        // 呼び出す前から同じ取得中の future があれば、この呼び出しは相乗りしたことになる
+        // （asMap().get は統計や読み込みを起こさずに、今ある future を覗くだけ）
+        CompletableFuture<LatestRates> existing = cache.asMap().get(base);
+        CompletableFuture<LatestRates> result = cache.get(base);
+        if (existing != null && existing == result && !result.isDone()) {
+            coalesced.increment();
+        }
+        return result;
+    }
+
+    /**
+     * キャッシュを通さずに取得したレートで、基準通貨のエントリを置き換える
+     * （有効期間と再取得のタイミングは、この時点から数え直す）
+     * @param rates 取得したばかりのレート
+     */
+    public void put(LatestRates rates) {
+        cache.put(rates.base(), CompletableFuture.completedFuture(rates));
+    }
+
+    /**
+     * 基準通貨の最新レートを取得する（キャッシュになければ取得が終わるまで待つ）
+     * @param base 基準通貨
+     * @return 全通貨のレート
+     */
+    public LatestRates get(String base) {
+        try {
+            return getAsync(base).join();
+        } catch (CompletionException e) {
+            // 呼び出し元には元の例外（HttpClientErrorException など）をそのまま返す
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.service;
+
+import com.example.model.Currencies;
+import com.example.model.LatestRates;
+import com.google.gson.stream.JsonReader;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+
+/**
+ * ===== RateJsonExtractor クラス =====
+ * 外部APIの応答（JSON）を、Gson の JsonReader で先頭から順に読みながら必要な値だけを取り出す
+ * JsonParser.parseString のように文字列全体や JsonObject のツリー（約160通貨分）を作らず、
+ * Currencies.CODES に含まれる通貨のレートだけを double[] に格納し、それ以外の値は読み飛ばす
+ *
+ * 応答の例:
+ *   {"base":"JPY","date":"2026-01-18","time_last_updated":1768694400,"rates":{"JPY":1,"USD":0.0067,...}}
+ */
+public final class RateJsonExtractor {
+
+    private RateJsonExtractor() {
+    }
+
+    /**
+     * 応答のストリームから最新レートを読み取る
+     * @param body 応答本文（UTF-8 の JSON）
+     * @param base 基準通貨
+     * @return 読み取ったレート
+     */
+    public static LatestRates extract(InputStream body, String base) throws IOException {
+        double[] rates = new double[Currencies.count()];
+        Arrays.fill(rates, Double.NaN);
+        LocalDate date = null;
+        Instant updatedAt = null;
+
+        JsonReader reader = new JsonReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "date" -> date = LocalDate.parse(reader.nextString());
+                case "time_last_updated" -> updatedAt = Instant.ofEpochSecond(reader.nextLong());
+                case "rates" -> readRates(reader, rates);
+                default -> reader.skipValue();
+            }
+        }
+        reader.endObject();
+
+        // 基準日が応答に含まれない場合は当日扱い、更新日時が含まれない場合は基準日の 0 時（UTC）扱いにする
+        if (date == null) {
+            date = LocalDate.now();
+        }
+        if (updatedAt == null) {
+            updatedAt = date.atStartOfDay().toInstant(ZoneOffset.UTC);
+        }
+        return new LatestRates(base, date, updatedAt, rates);
+    }
+
+    /**
+     * "rates" オブジェクトを読み、扱う通貨のレートだけを格納する
+     */
+    private static void readRates(JsonReader reader, double[] rates) throws IOException {
+        reader.beginObject();
+        while (reader.hasNext()) {
+            int index = Currencies.indexOf(reader.nextName());
+            if (index >= 0) {
+                rates[index] = reader.nextDouble();
+            } else {
+                // 扱わない通貨は値を読み取らずに飛ばす
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.service;
+
+import com.example.model.RateSheet;
+import com.example.model.RateSheetDelta;
+
+/**
+ * ===== RateSheetChangedEvent レコード =====
+ * 為替レート表の内容が変わり、スナップショットを差し替えた時に RateSheetService が発行するイベント
+ * 差分だけを使いたい処理は @EventListener でこのイベントを受け取る
+ *
+ * @param sheet 新しいスナップショット
+ * @param delta 前回のスナップショットからの差分
+ */
+public record RateSheetChangedEvent(RateSheet sheet, RateSheetDelta delta) {
+}
@@ -0,0 +1,286 @@
+package com.example.service;
+
+import com.example.model.RateSheet;
+import com.example.model.RateSheetDelta;
+import com.example.scraping.RateSheetSource;
+import com.example.scraping.RateTableScanner;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * ===== RateSheetService クラス =====
+ * 為替レート表をバックグラウンドでスクレイピングし、結果をメモリに保持するサービス
+ *
+ * - 取得元（RateSheetSource）はクラスパス・ローカルファイル・HTTP から設定で選ぶ
+ * - スケジューラが一定間隔（exchange.sheet.refresh-interval）でスクレイピングする
+ *   取得元が変更を検知できる場合（ローカルファイル）は、変更時にもすぐにスクレイピングする
+ * - 内容が変わった時だけ新しいスナップショットを作り、AtomicReference で差し替える
+ * - 行ごとの指紋を覚えておき、変わった行だけを新しく作る（変わらない行は前回のものを使い回す）
+ *   前回からの差分（追加・変更・削除）は RateSheetChangedEvent で通知する
+ * - リクエスト処理中は AtomicReference を読むだけ（ロックなし）なので、
+ *   表の大きさや取得元の遅さに関係なく、すぐに応答できる
+ */
+@Service
+public class RateSheetService implements InitializingBean {
+
+    private static final Logger log = LoggerFactory.getLogger(RateSheetService.class);
+
+    private final RateSheetSource source;
+    private final ApplicationEventPublisher events;
+    private final AtomicReference<RateSheet> snapshot = new AtomicReference<>();
+    /** 前回スクレイピングしたHTMLのハッシュ（内容が同じならパースしない） */
+    private long lastHash;
+    /** スナップショットの各行の指紋（rows と同じ順番） */
+    private long[] fingerprints = new long[0];
+
+    public RateSheetService(RateSheetSource source, ApplicationEventPublisher events) {
+        this.source = source;
+        this.events = events;
+    }
+
+    /**
+     * スクレイピング結果を返す（最後に内容が変わった時のスナップショット）
+     * @return スクレイピング結果
+     * @throws IllegalStateException まだ一度もスクレイピングできていない場合
+     */
+    public RateSheet get() {
+        RateSheet sheet = snapshot.get();
+        if (sheet == null) {
+            throw new IllegalStateException("為替レート表を読み込めていません");
+        }
+        return sheet;
+    }
+
+    /**
+     * 現在のスナップショットの番号（まだ一度もスクレイピングできていない場合は 0）
+     * 画面のキャッシュが、どのスナップショットから作ったものかを判定するのに使う
+     */
+    public long version() {
+        RateSheet sheet = snapshot.get();
+        return sheet != null ? sheet.version() : 0;
+    }
+
+    /**
+     * 起動時に一度スクレイピングしてから、取得元の変更を検知したらすぐにスクレイピングするように登録する
+     * （最初のスケジュール実行を待たずに、起動直後のリクエストから表を返せるようにする）
+     */
+    @Override
+    public void afterPropertiesSet() {
+        scrape();
+        source.onChange(this::scrape);
+    }
+
+    /**
+     * 取得元からHTMLを取得し、内容が変わっていれば変わった行だけを読み直してスナップショットを差し替える
+     * 差し替えた時は、前回からの差分を RateSheetChangedEvent として発行する
+     * 失敗した場合は、前回のスナップショットを使い続ける
+     */
+    @Scheduled(fixedDelayString = "${exchange.sheet.refresh-interval:PT1M}")
+    public synchronized void scrape() {
+        try {
+            CharSequence html = source.fetch();
+            if (html == null) {
+                return;
+            }
+            long hash = hash(html);
+            RateSheet current = snapshot.get();
+            if (current != null && hash == lastHash) {
+                return;
+            }
+
+            Rescan rescan = new Rescan(current, fingerprints);
+            RateTableScanner.scan(html, rescan);
+            lastHash = hash;
+            if (current != null && rescan.unchanged()) {
+                // 表以外の部分だけが変わった場合は、スナップショットを差し替えない
+                return;
+            }
+
+            RateSheetChangedEvent event = rescan.finish();
+            snapshot.set(event.sheet());
+            fingerprints = rescan.fingerprints();
+            events.publishEvent(event);
+            log.info("為替レート表を読み込みました: {} (version={}, 追加={}, 変更={}, 削除={})",
+                    source.description(), event.sheet().version(),
+                    event.delta().added().size(), event.delta().changed().size(), event.delta().removed().size());
+        } catch (Exception e) {
+            log.warn("為替レート表を読み込めません: {}, {}", source.description(), e.getMessage());
+        }
+    }
+
+    /**
+     * HTMLの内容のハッシュ（FNV-1a 64bit）
+     */
+    private static long hash(CharSequence html) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < html.length(); i++) {
+            hash ^= html.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    /**
+     * 表の1行の指紋（通貨とレートの FNV-1a 64bit、区切りに 0 を挟む）
+     */
+    private static long fingerprint(CharSequence currency, CharSequence rate) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < currency.length(); i++) {
+            hash ^= currency.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        hash *= 0x100000001b3L;
+        for (int i = 0; i < rate.length(); i++) {
+            hash ^= rate.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    /**
+     * 前回のスナップショットと比べながら、HTMLのテーブルから通貨レート情報を抽出する
+     * RateTableScanner でHTMLを先頭から読むだけで、DOMツリーは作らない
+     *
+     * - 行ごとの指紋が前回と同じ行は、前回の Row をそのまま使う（文字列を作らない）
+     * - 同じ位置の行と比べ、違えば前回の全行の指紋から探す（行の挿入や並べ替えに対応）
+     * - 指紋が見つからない行だけを新しく作り、追加か変更かを判定する
+     */
+    private static final class Rescan implements RateTableScanner.RowHandler {
+
+        private final RateSheet current;
+        private final List<RateSheet.Row> previous;
+        private final long[] previousFingerprints;
+        private Map<Long, RateSheet.Row> previousByFingerprint;
+
+        private final List<RateSheet.Row> rows;
+        private long[] fingerprints;
+        /** 前回と指紋が一致しなかった行 */
+        private final List<RateSheet.Row> fresh = new ArrayList<>();
+        /** すべての行が前回と同じ位置にあるか */
+        private boolean samePositions = true;
+
+        Rescan(RateSheet current, long[] previousFingerprints) {
+            this.current = current;
+            this.previous = current != null ? current.rows() : List.of();
+            this.previousFingerprints = previousFingerprints;
+            this.rows = new ArrayList<>(previous.size());
+            this.fingerprints = new long[Math.max(previous.size(), 16)];
+        }
+
+        @Override
+        public void row(CharSequence currency, CharSequence rate) {
+            int index = rows.size();
+            long fingerprint = fingerprint(currency, rate);
+
+            RateSheet.Row row = null;
+            if (index < previous.size() && previousFingerprints[index] == fingerprint
+                    && matches(previous.get(index), currency, rate)) {
+                row = previous.get(index);
+            } else {
+                samePositions = false;
+                RateSheet.Row moved = byFingerprint().get(fingerprint);
+                if (moved != null && matches(moved, currency, rate)) {
+                    row = moved;
+                }
+            }
+            if (row == null) {
+                row = RateSheet.Row.of(currency, rate);
+                fresh.add(row);
+            }
+
+            if (index == fingerprints.length) {
+                fingerprints = Arrays.copyOf(fingerprints, index * 2);
+            }
+            fingerprints[index] = fingerprint;
+            rows.add(row);
+        }
+
+        /**
+         * 表の内容も並び順も前回と同じかどうか
+         */
+        boolean unchanged() {
+            return samePositions && rows.size() == previous.size();
+        }
+
+        long[] fingerprints() {
+            return Arrays.copyOf(fingerprints, rows.size());
+        }
+
+        /**
+         * 新しいスナップショットと、前回からの差分を作る
+         */
+        RateSheetChangedEvent finish() {
+            long fromVersion = current != null ? current.version() : 0;
+            RateSheet sheet = new RateSheet(fromVersion + 1, Instant.now(), rows, text(rows));
+            return new RateSheetChangedEvent(sheet, delta(fromVersion, sheet.version()));
+        }
+
+        private RateSheetDelta delta(long fromVersion, long toVersion) {
+            List<RateSheet.Row> added = new ArrayList<>();
+            List<RateSheetDelta.Change> changed = new ArrayList<>();
+            List<RateSheet.Row> removed = new ArrayList<>();
+            // 行が新しくなったか数が変わった時だけ、通貨ごとに突き合わせる
+            if (!fresh.isEmpty() || rows.size() != previous.size()) {
+                Map<String, RateSheet.Row> before = new HashMap<>();
+                previous.forEach(row -> before.put(row.currency(), row));
+                for (RateSheet.Row row : fresh) {
+                    RateSheet.Row old = before.get(row.currency());
+                    if (old == null) {
+                        added.add(row);
+                    } else if (!old.rate().equals(row.rate())) {
+                        changed.add(new RateSheetDelta.Change(row.currency(), old.rate(), row.rate()));
+                    }
+                }
+                Set<String> after = new HashSet<>();
+                rows.forEach(row -> after.add(row.currency()));
+                for (RateSheet.Row row : previous) {
+                    if (!after.contains(row.currency())) {
+                        removed.add(row);
+                    }
+                }
+            }
+            return new RateSheetDelta(fromVersion, toVersion, added, changed, removed);
+        }
+
+        private Map<Long, RateSheet.Row> byFingerprint() {
+            if (previousByFingerprint == null) {
+                previousByFingerprint = new HashMap<>();
+                for (int i = 0; i < previous.size(); i++) {
+                    previousByFingerprint.put(previousFingerprints[i], previous.get(i));
+                }
+            }
+            return previousByFingerprint;
+        }
+
+        private static boolean matches(RateSheet.Row row, CharSequence currency, CharSequence rate) {
+            return row.currency().contentEquals(currency) && row.rate().contentEquals(rate);
+        }
+
+        /**
+         * ホーム画面に表示するテキストを組み立てる
+         */
+        private static String text(List<RateSheet.Row> rows) {
+            StringBuilder scrapedData = new StringBuilder();
+            scrapedData.append("【スクレイピングで取得した為替レート】\n");
+            scrapedData.append("━━━━━━━━━━━━━━━━━━━━\n");
+            for (RateSheet.Row row : rows) {
+                scrapedData.append(row.currency()).append(": ").append(row.rate()).append(" JPY\n");
+            }
+            return scrapedData.toString();
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.example.service;
+
+import com.example.model.DateSexagenary;
+import com.example.model.Sexagenary;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * ===== SexagenaryCalendar クラス =====
+ * 日付から干支（60周期の十干十二支）を求める処理
+ *
+ * - 年の干支は旧暦の年で決まるので、旧正月（春節）より前の日付は前の年の干支になる
+ *   （例：2024-02-09 は癸卯、2024-02-10 からは甲辰）
+ * - 旧正月の日付は 1900 ～ 2101 年分を表にして持つ（年ごとに1日なので、西暦の年で直接引ける）
+ *   表は中国の暦の規則（冬至を含む月を11月とし、その2つ後の新月が正月、北京時間で日付を決める）で
+ *   天文計算した値で、公表されている春節の日付と一致することを確認している
+ * - 日の干支は60日周期（1949-10-01 が甲子の日）
+ * - 60通りの Sexagenary は最初に作っておくので、判定のたびにオブジェクトを作らない
+ */
+public final class SexagenaryCalendar {
+
+    /** 十干 */
+    public static final List<String> STEMS = List.of("甲", "乙", "丙", "丁", "戊", "己", "庚", "辛", "壬", "癸");
+    /** 十二支（ZodiacCalculator.SIGNS と同じ並び） */
+    public static final List<String> BRANCHES = List.of("子", "丑", "寅", "卯", "辰", "巳", "午", "未", "申", "酉", "戌", "亥");
+
+    /** 表の最初の年 */
+    public static final int FIRST_YEAR = 1900;
+
+    /**
+     * 旧正月の日付（1月21日から何日後か）、FIRST_YEAR から1年ずつ
+     * 旧正月は必ず 1月21日 ～ 2月20日 の間になる
+     */
+    private static final byte[] NEW_YEAR_OFFSETS = {
+            10, 29, 18,  8, 26, 14,  4, 23, 12,  1,  // 1900-1909
+            20,  9, 28, 16,  5, 24, 13,  2, 21, 11,  // 1910-1919
+            30, 18,  7, 26, 15,  3, 23, 12,  2, 20,  // 1920-1929
+             9, 27, 16,  5, 24, 14,  3, 21, 10, 29,  // 1930-1939
+            18,  6, 25, 15,  4, 23, 12,  1, 20,  8,  // 1940-1949
+            27, 16,  6, 24, 13,  3, 22, 10, 28, 18,  // 1950-1959
+             7, 25, 15,  4, 23, 12,  0, 19,  9, 27,  // 1960-1969
+            16,  6, 25, 13,  2, 21, 10, 28, 17,  7,  // 1970-1979
+            26, 15,  4, 23, 12, 30, 19,  8, 27, 16,  // 1980-1989
+             6, 25, 14,  2, 20, 10, 29, 17,  7, 26,  // 1990-1999
+            15,  3, 22, 11,  1, 19,  8, 28, 17,  5,  // 2000-2009
+            24, 13,  2, 20, 10, 29, 18,  7, 26, 15,  // 2010-2019
+             4, 22, 11,  1, 20,  8, 27, 16,  5, 23,  // 2020-2029
+            13,  2, 21, 10, 29, 18,  7, 25, 14,  3,  // 2030-2039
+            22, 11,  1, 20,  9, 27, 16,  5, 24, 12,  // 2040-2049
+             2, 21, 11, 29, 18,  7, 25, 14,  3, 22,  // 2050-2059
+            12,  0, 19,  8, 27, 15,  5, 24, 13,  2,  // 2060-2069
+            21, 10, 29, 17,  6, 25, 15,  3, 22, 12,  // 2070-2079
+             1, 19,  8, 27, 16,  5, 24, 13,  3, 20,  // 2080-2089
+             9, 28, 17,  6, 25, 15,  4, 22, 11,  0,  // 2090-2099
+            19,  8   // 2100-2101
+    };
+
+    /** 旧正月のエポック日（NEW_YEAR_OFFSETS から作る） */
+    private static final long[] NEW_YEAR_EPOCH_DAYS = new long[NEW_YEAR_OFFSETS.length];
+    /** 60通りの干支（番号順） */
+    private static final Sexagenary[] CYCLE = new Sexagenary[60];
+    /** 甲子の日（1949-10-01）のエポック日 */
+    private static final long JIAZI_DAY = LocalDate.of(1949, 10, 1).toEpochDay();
+
+    static {
+        for (int i = 0; i < NEW_YEAR_OFFSETS.length; i++) {
+            NEW_YEAR_EPOCH_DAYS[i] = LocalDate.of(FIRST_YEAR + i, 1, 21).toEpochDay() + NEW_YEAR_OFFSETS[i];
+        }
+        for (int i = 0; i < CYCLE.length; i++) {
+            String stem = STEMS.get(i % STEMS.size());
+            String branch = BRANCHES.get(i % BRANCHES.size());
+            CYCLE[i] = new Sexagenary(i, stem + branch, stem, branch, ZodiacCalculator.SIGNS.get(i % BRANCHES.size()));
+        }
+    }
+
+    private SexagenaryCalendar() {
+    }
+
+    /**
+     * 旧暦の年の干支を返す（西暦4年が甲子）
+     * @param lunarYear 旧暦の年（旧正月から始まる年を、その西暦の年で表したもの）
+     * @return 干支
+     */
+    public static Sexagenary ofYear(int lunarYear) {
+        return CYCLE[Math.floorMod(lunarYear - 4L, 60)];
+    }
+
+    /**
+     * 日付が属する旧暦の年の干支を返す（旧正月より前は前の年の干支）
+     * @param date 日付（1900-01-31 ～ 2101-01-28）
+     * @return 干支
+     * @throws IllegalArgumentException 表の範囲外の日付の場合
+     */
+    public static Sexagenary ofDate(LocalDate date) {
+        return ofYear(lunarYear(date));
+    }
+
+    /**
+     * 入力された日付の文字列から、年の干支と日の干支を求める
+     * 未入力（null、空文字、空白だけ）は日付の指定なしとして扱う（フォームと API で同じ規則にする）
+     * @param date 日付（2024-02-10 の形式、1900-01-31 ～ 2101-01-28）
+     * @return 判定結果（日付の指定がない場合は空）
+     * @throws DateTimeParseException 日付の形式が正しくない場合
+     * @throws IllegalArgumentException 表の範囲外の日付の場合
+     */
+    public static Optional<DateSexagenary> parseDate(String date) {
+        if (date == null || date.isBlank()) {
+            return Optional.empty();
+        }
+        LocalDate day = LocalDate.parse(date);
+        int lunarYear = lunarYear(day);
+        return Optional.of(new DateSexagenary(day, lunarYear, newYear(lunarYear), ofYear(lunarYear), ofDay(day)));
+    }
+
+    /**
+     * 日の干支を返す（60日周期、表の範囲に関係なく求められる）
+     * @param date 日付
+     * @return 干支
+     */
+    public static Sexagenary ofDay(LocalDate date) {
+        return CYCLE[(int) Math.floorMod(date.toEpochDay() - JIAZI_DAY, 60L)];
+    }
+
+    /**
+     * 日付が属する旧暦の年を返す
+     * @param date 日付
+     * @return 旧暦の年（旧正月より前なら西暦の前の年）
+     * @throws IllegalArgumentException 表の範囲外の日付の場合
+     */
+    public static int lunarYear(LocalDate date) {
+        long epochDay = date.toEpochDay();
+        if (epochDay < NEW_YEAR_EPOCH_DAYS[0] || epochDay >= NEW_YEAR_EPOCH_DAYS[NEW_YEAR_EPOCH_DAYS.length - 1]) {
+            throw new IllegalArgumentException("旧正月の表の範囲外の日付です（"
+                    + newYear(FIRST_YEAR) + " ～ " + newYear(lastYear() + 1).minusDays(1) + "）: " + date);
+        }
+        int year = date.getYear();
+        return epochDay < NEW_YEAR_EPOCH_DAYS[year - FIRST_YEAR] ? year - 1 : year;
+    }
+
+    /**
+     * 旧暦の年の旧正月の日付を返す
+     * @param lunarYear 旧暦の年（FIRST_YEAR ～ lastYear() + 1）
+     * @return 旧正月の日付
+     * @throws IllegalArgumentException 表の範囲外の年の場合
+     */
+    public static LocalDate newYear(int lunarYear) {
+        int index = lunarYear - FIRST_YEAR;
+        if (index < 0 || index >= NEW_YEAR_EPOCH_DAYS.length) {
+            throw new IllegalArgumentException("旧正月の表の範囲外の年です: " + lunarYear);
+        }
+        return LocalDate.ofEpochDay(NEW_YEAR_EPOCH_DAYS[index]);
+    }
+
+    /**
+     * 日付から判定できる最後の旧暦の年
+     */
+    public static int lastYear() {
+        return FIRST_YEAR + NEW_YEAR_EPOCH_DAYS.length - 2;
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.service;
+
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * ===== VectorZodiacClassifier クラス =====
+ * 干支の番号を、Vector API（jdk.incubator.vector）で複数の年をまとめて計算する処理
+ * ZodiacCalculator.classify から、JVM を --add-modules jdk.incubator.vector で起動した場合だけ使われる
+ * （このクラスを読み込むだけで incubator モジュールが必要になるため、直接は呼ばないこと）
+ *
+ * 計算は ZodiacCalculator.indexBranchFree と同じ（除算を使わずシフト・AND・加算だけで求める）
+ * 1回のループで、int のベクトル4本分の年を計算し、1本の byte のベクトルにまとめて書き込む
+ */
+public final class VectorZodiacClassifier {
+
+    private static final VectorSpecies<Integer> INTS = IntVector.SPECIES_PREFERRED;
+    /** INTS と同じビット幅の byte のベクトル（レーン数は4倍） */
+    private static final VectorSpecies<Byte> BYTES = VectorSpecies.of(byte.class, INTS.vectorShape());
+    private static final int PARTS = BYTES.length() / INTS.length();
+
+    private VectorZodiacClassifier() {
+    }
+
+    /**
+     * years[from, to) の干支の番号を out[0, to - from) に書き込む
+     * ベクトルの幅に満たない端数は ZodiacCalculator.indexBranchFree で1件ずつ計算する
+     */
+    public static void classify(int[] years, int from, int to, byte[] out) {
+        int step = BYTES.length();
+        int i = from;
+        for (; i <= to - step; i += step) {
+            ByteVector packed = ByteVector.zero(BYTES);
+            for (int part = 0; part < PARTS; part++) {
+                IntVector signs = index(IntVector.fromArray(INTS, years, i + part * INTS.length()));
+                // int → byte の変換結果を part 番目の位置に置き（残りのレーンは 0）、OR で1本にまとめる
+                packed = packed.or((ByteVector) signs.convertShape(VectorOperators.I2B, BYTES, -part));
+            }
+            packed.intoArray(out, i - from);
+        }
+        for (; i < to; i++) {
+            out[i - from] = (byte) ZodiacCalculator.indexBranchFree(years[i]);
+        }
+    }
+
+    /**
+     * ZodiacCalculator.indexBranchFree をレーンごとに計算する
+     */
+    private static IntVector index(IntVector x) {
+        IntVector mod4 = x.and(3);
+
+        // 3で割った余り（2^16、2^8、2^4、2^2 はどれも 3 で割ると 1 余るので、桁を足し合わせても余りは同じ）
+        IntVector s = x.lanewise(VectorOperators.LSHR, 16).add(x.and(0xFFFF));
+        s = s.lanewise(VectorOperators.LSHR, 8).add(s.and(0xFF));
+        s = s.lanewise(VectorOperators.LSHR, 4).add(s.and(0xF));
+        s = s.lanewise(VectorOperators.LSHR, 2).add(s.and(3));
+        s = s.lanewise(VectorOperators.LSHR, 2).add(s.and(3));
+        s = s.lanewise(VectorOperators.LSHR, 2).add(s.and(3));
+        // 負の数は 2^32 を足した値として計算したので、その分（3で割ると1余る）を戻す
+        s = s.add(x.lanewise(VectorOperators.ASHR, 31).and(2));
+        s = s.sub(s.neg().add(2).lanewise(VectorOperators.ASHR, 31).and(3));
+        s = s.sub(s.neg().add(2).lanewise(VectorOperators.ASHR, 31).and(3));
+
+        // 4と3で割った余りから12で割った余りを組み立て（中国剰余定理）、西暦4年が 0 になるようにずらす
+        IntVector r = mod4.mul(9).add(s.lanewise(VectorOperators.LSHL, 2)).add(8);
+        r = r.sub(r.neg().add(23).lanewise(VectorOperators.ASHR, 31).and(24));
+        r = r.sub(r.neg().add(11).lanewise(VectorOperators.ASHR, 31).and(12));
+        return r;
+    }
+}
@@ -0,0 +1,239 @@
+package com.example.service;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import com.google.gson.stream.MalformedJsonException;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * ===== ZodiacBatchProcessor クラス =====
+ * 大量の西暦の干支を、リクエストの本文を読みながら判定してレスポンスに書き出す処理
+ * 本文全体をメモリに読み込まず、CHUNK 件ずつ読んで判定し、そのたびに書き出す（flush する）
+ *
+ * 対応する形式:
+ *   - NDJSON: 1行に1つ、西暦の数値（1990）または {"year":1990}
+ *             → 1行に1つ {"year":1990,"zodiac":"馬"}
+ *   - バイナリ: 西暦を4バイトの整数（ビッグエンディアン）で並べたもの
+ *             → 干支の番号（0 = 鼠 ～ 11 = 猪）を1件1バイトで並べたもの
+ *
+ * 読めない入力があった場合は InvalidInputException（何件目か）を投げる
+ * それより前の件の結果は書き出し済み（flush 済みならレスポンスは確定している）なので、
+ * 呼び出し元は確定済みかどうかで 400 にするか、続けてエラーの行（writeError）を書くかを選ぶ
+ */
+public final class ZodiacBatchProcessor {
+
+    /** 一度に判定する件数 */
+    public static final int CHUNK = 8192;
+    /** バイナリ形式の結果の後ろに、エラーの行が続くことを示す1バイト（干支の番号 0 ～ 11 とは重ならない） */
+    public static final int ERROR_FRAME = 0xFF;
+
+    private static final byte[] YEAR_PREFIX = "{\"year\":".getBytes(StandardCharsets.UTF_8);
+    /** 干支ごとの行末（,"zodiac":"鼠"}\n など）を UTF-8 にしておく */
+    private static final byte[][] SIGN_SUFFIXES = new byte[ZodiacCalculator.SIGNS.size()][];
+    /** 1件分の出力の最大長（{"year": + 符号と10桁 + 行末） */
+    private static final int MAX_LINE;
+
+    static {
+        int maxSuffix = 0;
+        for (int i = 0; i < SIGN_SUFFIXES.length; i++) {
+            SIGN_SUFFIXES[i] = (",\"zodiac\":\"" + ZodiacCalculator.SIGNS.get(i) + "\"}\n")
+                    .getBytes(StandardCharsets.UTF_8);
+            maxSuffix = Math.max(maxSuffix, SIGN_SUFFIXES[i].length);
+        }
+        MAX_LINE = YEAR_PREFIX.length + 11 + maxSuffix;
+    }
+
+    private ZodiacBatchProcessor() {
+    }
+
+    /**
+     * バイナリ形式の西暦を読み、干支の番号を書き出す
+     * @param in  西暦（4バイトの整数の並び）
+     * @param out 干支の番号（1件1バイト）
+     * @throws InvalidInputException 入力の長さが4バイトの倍数でない場合（最後の半端な1件が何件目か）
+     */
+    public static void classifyBinary(InputStream in, OutputStream out) throws IOException {
+        byte[] input = new byte[CHUNK * Integer.BYTES];
+        int[] years = new int[CHUNK];
+        byte[] signs = new byte[CHUNK];
+
+        long index = 0;
+        int read;
+        // readNBytes はバッファが埋まるか入力が終わるまで読むので、半端な長さになるのは最後だけ
+        while ((read = in.readNBytes(input, 0, input.length)) > 0) {
+            int count = read / Integer.BYTES;
+            if (count > 0) {
+                ByteBuffer.wrap(input, 0, count * Integer.BYTES).asIntBuffer().get(years, 0, count);
+                ZodiacCalculator.classify(years, 0, count, signs);
+                out.write(signs, 0, count);
+                out.flush();
+                index += count;
+            }
+            if (read % Integer.BYTES != 0) {
+                throw new InvalidInputException("入力の長さが4バイトの倍数ではありません", index);
+            }
+        }
+    }
+
+    /**
+     * NDJSON 形式の西暦を読み、干支を NDJSON で書き出す
+     * @param in  西暦（1行に1つ、数値または {"year":...}）
+     * @param out 判定結果（1行に1つ）
+     * @throws InvalidInputException 西暦として読めない行がある場合（それより前の行の結果は書き出し済み）
+     */
+    public static void classifyNdjson(InputStream in, OutputStream out) throws IOException {
+        // 寛容モードにすると、改行で区切られた複数の値を順に読める
+        JsonReader reader = new JsonReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        reader.setLenient(true);
+
+        int[] years = new int[CHUNK];
+        byte[] signs = new byte[CHUNK];
+        byte[] output = new byte[CHUNK * MAX_LINE];
+
+        long index = 0;
+        int count = 0;
+        try {
+            while (reader.peek() != JsonToken.END_DOCUMENT) {
+                years[count] = readYear(reader);
+                count++;
+                index++;
+                if (count == CHUNK) {
+                    writeNdjson(years, count, signs, output, out);
+                    count = 0;
+                }
+            }
+        } catch (MalformedJsonException | EOFException | IllegalStateException | IllegalArgumentException e) {
+            // 読めた行までの結果を書き出してから、何行目が読めなかったかを知らせる
+            // （JSON の書式誤り・途中で終わった値・int に収まらない数値・想定外の型）
+            if (count > 0) {
+                writeNdjson(years, count, signs, output, out);
+            }
+            throw new InvalidInputException("西暦として読めません: " + e.getMessage(), index);
+        }
+        if (count > 0) {
+            writeNdjson(years, count, signs, output, out);
+        }
+    }
+
+    /**
+     * エラーの行 {"error":"...","index":n} を書き出す
+     * レスポンスが確定した後に失敗した場合、途中で切れた結果と区別できるよう最後の行として書く
+     * @param error 失敗した理由と何件目か
+     * @param out   書き出し先
+     */
+    public static void writeError(InvalidInputException error, OutputStream out) throws IOException {
+        OutputStreamWriter writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+        JsonWriter json = new JsonWriter(writer);
+        json.beginObject()
+                .name("error").value(error.getMessage())
+                .name("index").value(error.index())
+                .endObject();
+        json.flush();
+        writer.write('\n');
+        writer.flush();
+    }
+
+    /**
+     * バイナリ形式の結果の後ろに、エラーの情報（ERROR_FRAME の1バイトと、writeError と同じ1行）を書く
+     * 結果を送り始めた後で、トレーラーでも失敗を知らせられない場合に使う
+     * @param error 読めなかった入力の情報
+     * @param out   結果を書き出している出力先
+     */
+    public static void writeErrorFrame(InvalidInputException error, OutputStream out) throws IOException {
+        out.write(ERROR_FRAME);
+        writeError(error, out);
+    }
+
+    /**
+     * 1行分の値から西暦を読む（数値、または "year" 項目を持つオブジェクト）
+     */
+    private static int readYear(JsonReader reader) throws IOException {
+        if (reader.peek() == JsonToken.NUMBER) {
+            return reader.nextInt();
+        }
+        if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+            throw new IllegalArgumentException("数値または {\"year\":...} ではありません: " + reader.getPath());
+        }
+
+        Integer year = null;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            if ("year".equals(reader.nextName())) {
+                year = reader.nextInt();
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+        if (year == null) {
+            throw new IllegalArgumentException("year がありません: " + reader.getPath());
+        }
+        return year;
+    }
+
+    /**
+     * count 件分を判定し、NDJSON にしてまとめて書き出す（String を作らずにバイト列を組み立てる）
+     */
+    private static void writeNdjson(int[] years, int count, byte[] signs, byte[] output, OutputStream out)
+            throws IOException {
+        ZodiacCalculator.classify(years, 0, count, signs);
+
+        int position = 0;
+        for (int i = 0; i < count; i++) {
+            System.arraycopy(YEAR_PREFIX, 0, output, position, YEAR_PREFIX.length);
+            position = writeDigits(years[i], output, position + YEAR_PREFIX.length);
+            byte[] suffix = SIGN_SUFFIXES[signs[i]];
+            System.arraycopy(suffix, 0, output, position, suffix.length);
+            position += suffix.length;
+        }
+        out.write(output, 0, position);
+        out.flush();
+    }
+
+    /**
+     * 整数を10進数の ASCII で書き込み、書き込んだ後の位置を返す
+     */
+    private static int writeDigits(int value, byte[] output, int position) {
+        long remaining = value;
+        if (remaining < 0) {
+            output[position++] = '-';
+            remaining = -remaining;
+        }
+        int digits = 1;
+        for (long limit = 10; limit <= remaining; limit *= 10) {
+            digits++;
+        }
+        for (int i = position + digits - 1; i >= position; i--) {
+            output[i] = (byte) ('0' + remaining % 10);
+            remaining /= 10;
+        }
+        return position + digits;
+    }
+
+    /**
+     * 西暦として読めない入力があったことを表す例外
+     * index は読めなかった件が何件目か（0 から数える、それより前の件の結果は書き出し済み）
+     */
+    public static final class InvalidInputException extends IllegalArgumentException {
+
+        private final long index;
+
+        public InvalidInputException(String message, long index) {
+            super(message);
+            this.index = index;
+        }
+
+        public long index() {
+            return index;
+        }
+    }
+}
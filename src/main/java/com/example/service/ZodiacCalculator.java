@@ -0,0 +1,102 @@
+package com.example.service;
+
+import java.util.List;
+
+/**
+ * ===== ZodiacCalculator クラス =====
+ * 西暦から干支（十二支）を判定する処理
+ * 12年周期で干支が繰り返されることを利用する（西暦4年が鼠年）
+ * フォームの判定（/zodiac）と、まとめて判定する API（/api/zodiac/batch）で共有する
+ *
+ * まとめて判定する classify は、JVM を --add-modules jdk.incubator.vector で起動した場合は
+ * Vector API（VectorZodiacClassifier）で複数の年を同時に計算し、それ以外は1件ずつ計算する
+ */
+public final class ZodiacCalculator {
+
+    /** 干支（12年周期、番号 0 が鼠） */
+    public static final List<String> SIGNS = List.of("鼠", "牛", "虎", "兎", "竜", "蛇", "馬", "羊", "猿", "鶏", "犬", "猪");
+
+    /** Vector API（incubator モジュール）が使えるか（起動オプションで決まるので最初に1回だけ調べる） */
+    private static final boolean VECTOR_API = ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+
+    private ZodiacCalculator() {
+    }
+
+    /**
+     * classify が Vector API を使うかどうか
+     */
+    public static boolean vectorized() {
+        return VECTOR_API;
+    }
+
+    /**
+     * 干支の番号を返す（SIGNS の位置）
+     * 紀元前（0 以下の年）でも 0 ～ 11 になるように、余りは floorMod で求める
+     * @param year 西暦
+     * @return 干支の番号（0 = 鼠 ～ 11 = 猪）
+     */
+    public static int index(int year) {
+        return Math.floorMod(year - 4L, 12);
+    }
+
+    /**
+     * 干支を返す
+     * @param year 西暦
+     * @return 干支（鼠、牛、虎...など）
+     */
+    public static String sign(int year) {
+        return SIGNS.get(index(year));
+    }
+
+    /**
+     * index と同じ値を、除算も分岐も使わずに計算する（VectorZodiacClassifier がレーンごとに同じ計算をする）
+     * 普通のループでこれを呼んでも JIT は自動ベクトル化せず、floorMod の index より遅いので、1件ずつの計算には使わない
+     * 12 = 4 × 3 なので、4で割った余り（下位2ビット）と3で割った余りを別々に求めて組み合わせる
+     */
+    public static int indexBranchFree(int year) {
+        int mod4 = year & 3;
+
+        // 3で割った余り（2^16、2^8、2^4、2^2 はどれも 3 で割ると 1 余るので、桁を足し合わせても余りは同じ）
+        int s = (year >>> 16) + (year & 0xFFFF);
+        s = (s >>> 8) + (s & 0xFF);
+        s = (s >>> 4) + (s & 0xF);
+        s = (s >>> 2) + (s & 3);
+        s = (s >>> 2) + (s & 3);
+        s = (s >>> 2) + (s & 3);
+        // 負の数は 2^32 を足した値として計算したので、その分（3で割ると1余る）を戻す
+        s += (year >> 31) & 2;
+        s -= ((2 - s) >> 31) & 3;
+        s -= ((2 - s) >> 31) & 3;
+
+        // 4と3で割った余りから12で割った余りを組み立て（中国剰余定理）、西暦4年が 0 になるようにずらす
+        int r = mod4 * 9 + (s << 2) + 8;
+        r -= ((23 - r) >> 31) & 24;
+        r -= ((11 - r) >> 31) & 12;
+        return r;
+    }
+
+    /**
+     * years[from, to) の干支の番号を out[0, to - from) に書き込む
+     * Vector API が使える場合はまとめて計算する
+     * @param years 西暦
+     * @param from  開始位置
+     * @param to    終了位置（含まない）
+     * @param out   干支の番号の書き込み先
+     */
+    public static void classify(int[] years, int from, int to, byte[] out) {
+        if (VECTOR_API) {
+            VectorZodiacClassifier.classify(years, from, to, out);
+        } else {
+            classifyScalar(years, from, to, out);
+        }
+    }
+
+    /**
+     * classify の Vector API を使わない版（1件ずつ floorMod で計算する）
+     */
+    public static void classifyScalar(int[] years, int from, int to, byte[] out) {
+        for (int i = from; i < to; i++) {
+            out[i - from] = (byte) index(years[i]);
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.example.web;
+
+import com.example.service.RateSheetChangedEvent;
+import com.example.service.RateSheetService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.context.event.EventListener;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * ===== PageCacheFilter クラス =====
+ * 誰が見ても同じ内容になる画面（/、/about）の HTML をメモリに保存して返すフィルタ
+ *
+ * - 1回目はコントローラーと Thymeleaf で作った HTML を、そのままと gzip 圧縮したものの2通りで保存する
+ * - 2回目以降はコントローラーも Thymeleaf も通さず、保存したバイト列を書き出すだけ
+ *   （ブラウザが gzip に対応していれば圧縮済みのものを返す）
+ * - 保存した HTML には、作った時の為替レート表のスナップショット番号を付けておき、
+ *   番号が変わっていれば作り直す（RateSheetChangedEvent を受けたら全て捨てる）
+ * - コントローラーが付けた ETag と Last-Modified も一緒に保存し、
+ *   ブラウザが同じ HTML を持っていれば（If-None-Match / If-Modified-Since）本文なしの 304 を返す
+ * - 対象は GET と HEAD で、クエリ文字列のないリクエストだけ
+ */
+public class PageCacheFilter extends OncePerRequestFilter {
+
+    private final RateSheetService rateSheetService;
+    private final Set<String> paths;
+    private final ConcurrentMap<String, Page> pages = new ConcurrentHashMap<>();
+    private final Counter hits;
+    private final Counter misses;
+
+    public PageCacheFilter(RateSheetService rateSheetService, Set<String> paths, MeterRegistry meterRegistry) {
+        this.rateSheetService = rateSheetService;
+        this.paths = Set.copyOf(paths);
+        this.hits = Counter.builder("page.cache.hits")
+                .description("保存した HTML を返した回数")
+                .register(meterRegistry);
+        this.misses = Counter.builder("page.cache.misses")
+                .description("HTML を作り直した回数")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 為替レート表が変わったら、保存した HTML を全て捨てる
+     */
+    @EventListener
+    public void onRateSheetChanged(RateSheetChangedEvent event) {
+        pages.clear();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String method = request.getMethod();
+        return !("GET".equals(method) || "HEAD".equals(method))
+                || request.getQueryString() != null
+                || !paths.contains(request.getRequestURI());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String path = request.getRequestURI();
+        // 画面を作る前に番号を読む（作っている間に表が変わっても、次のリクエストで作り直される）
+        long version = rateSheetService.version();
+
+        Page page = pages.get(path);
+        if (page != null && page.version() == version) {
+            hits.increment();
+            if (page.etag() != null
+                    && new ServletWebRequest(request, response).checkNotModified(page.etag(), page.lastModified())) {
+                return;
+            }
+            write(page, request, response);
+            return;
+        }
+
+        misses.increment();
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        chain.doFilter(request, wrapper);
+
+        String contentType = wrapper.getContentType();
+        if (wrapper.getStatus() == HttpServletResponse.SC_OK && contentType != null
+                && contentType.startsWith("text/html")) {
+            byte[] body = wrapper.getContentAsByteArray();
+            pages.put(path, new Page(version, contentType, wrapper.getHeader("ETag"),
+                    lastModified(wrapper.getHeader("Last-Modified")), body, gzip(body)));
+        }
+        response.addHeader("Vary", "Accept-Encoding");
+        wrapper.copyBodyToResponse();
+    }
+
+    /**
+     * 保存した HTML を書き出す
+     */
+    private static void write(Page page, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        String acceptEncoding = request.getHeader("Accept-Encoding");
+        boolean gzip = acceptEncoding != null && acceptEncoding.contains("gzip");
+        byte[] body = gzip ? page.gzip() : page.plain();
+
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(page.contentType());
+        response.addHeader("Vary", "Accept-Encoding");
+        if (gzip) {
+            response.setHeader("Content-Encoding", "gzip");
+        }
+        response.setContentLength(body.length);
+        if (!"HEAD".equals(request.getMethod())) {
+            response.getOutputStream().write(body);
+        }
+    }
+
+    /**
+     * Last-Modified ヘッダーの日時をミリ秒にする（ヘッダーがない場合は -1）
+     */
+    private static long lastModified(String header) {
+        if (header == null) {
+            return -1;
+        }
+        return ZonedDateTime.parse(header, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().toEpochMilli();
+    }
+
+    private static byte[] gzip(byte[] body) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * 保存した1画面分の HTML
+     * @param version      作った時の為替レート表のスナップショット番号
+     * @param contentType  Content-Type（文字コードを含む）
+     * @param etag         コントローラーが付けた ETag（付けていない場合は null）
+     * @param lastModified コントローラーが付けた Last-Modified（ミリ秒、付けていない場合は -1）
+     * @param plain        圧縮していない HTML
+     * @param gzip         gzip 圧縮した HTML
+     */
+    private record Page(long version, String contentType, String etag, long lastModified, byte[] plain, byte[] gzip) {
+    }
+}
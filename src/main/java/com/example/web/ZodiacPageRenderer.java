@@ -0,0 +1,178 @@
+package com.example.web;
+
+import com.example.service.RateSheetChangedEvent;
+import com.example.service.RateSheetService;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.ServletContext;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.context.event.EventListener;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.thymeleaf.ITemplateEngine;
+import org.thymeleaf.context.WebContext;
+import org.thymeleaf.web.IWebExchange;
+import org.thymeleaf.web.servlet.JakartaServletWebApplication;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * ===== ZodiacPageRenderer クラス =====
+ * 干支判定フォームの送信結果（POST /zodiac）の画面を、作り置きのバイト列をつなげて返すクラス
+ *
+ * - 画面は「判定結果の部分」と「それ以外の部分（外枠）」に分けて作り置きする
+ * - 判定結果の部分は index.html の th:fragment="zodiacResult" だけを Thymeleaf で作り、
+ *   入力（西暦または生年月日）ごとに保存する（結果は入力だけで決まるので捨てる必要がない）
+ * - 外枠は判定結果なしで画面全体を作り、目印のコメント（RESULT_MARKER）の前後で2つに分けて保存する
+ *   （スクレイピング結果を含むため、PageCacheFilter と同じく為替レート表の番号が変わったら作り直す）
+ * - 2回目以降は Thymeleaf を通さず、外枠の前半・判定結果・外枠の後半を書き出すだけ
+ * - 入力エラーの結果は保存しない（エラーメッセージに入力がそのまま含まれるため）
+ */
+public class ZodiacPageRenderer {
+
+    /** 画面のテンプレート */
+    private static final String TEMPLATE = "index";
+    /** 判定結果の部分（index.html の th:fragment 名） */
+    private static final String FRAGMENT = "zodiacResult";
+    /** 外枠の中で判定結果を入れる位置（index.html の判定結果の直後に書いたコメント） */
+    private static final byte[] RESULT_MARKER = "<!--zodiac-result-->".getBytes(StandardCharsets.UTF_8);
+    private static final String CONTENT_TYPE = "text/html;charset=UTF-8";
+
+    private final ITemplateEngine templateEngine;
+    private final JakartaServletWebApplication application;
+    private final RateSheetService rateSheetService;
+    private final Cache<String, byte[]> fragments;
+    private final Counter hits;
+    private final Counter misses;
+    private volatile Shell shell;
+
+    public ZodiacPageRenderer(ITemplateEngine templateEngine, ServletContext servletContext,
+                              RateSheetService rateSheetService, long maxFragments, MeterRegistry meterRegistry) {
+        this.templateEngine = templateEngine;
+        this.application = JakartaServletWebApplication.buildApplication(servletContext);
+        this.rateSheetService = rateSheetService;
+        this.fragments = Caffeine.newBuilder()
+                .maximumSize(maxFragments)
+                .build();
+        this.hits = Counter.builder("page.cache.fragment.hits")
+                .description("保存した干支の判定結果を使った回数")
+                .register(meterRegistry);
+        this.misses = Counter.builder("page.cache.fragment.misses")
+                .description("干支の判定結果を作り直した回数")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 為替レート表が変わったら、外枠を捨てる（判定結果の部分はそのまま使える）
+     */
+    @EventListener
+    public void onRateSheetChanged(RateSheetChangedEvent event) {
+        shell = null;
+    }
+
+    /**
+     * 判定結果の画面を書き出す
+     * @param key    判定結果を保存する時のキー（入力から決まる文字列、保存しない場合は null）
+     * @param result 判定結果の部分に渡す値（zodiacSign、sexagenary など）
+     */
+    public void render(String key, Map<String, Object> result,
+                       HttpServletRequest request, HttpServletResponse response) throws IOException {
+        IWebExchange exchange = application.buildExchange(request, response);
+        Shell page = shell(exchange);
+
+        byte[] fragment;
+        if (key == null) {
+            fragment = renderFragment(exchange, result);
+        } else {
+            fragment = fragments.getIfPresent(key);
+            if (fragment != null) {
+                hits.increment();
+            } else {
+                misses.increment();
+                fragment = renderFragment(exchange, result);
+                fragments.put(key, fragment);
+            }
+        }
+
+        response.setContentType(CONTENT_TYPE);
+        response.setContentLength(page.head().length + fragment.length + page.tail().length);
+        OutputStream out = response.getOutputStream();
+        out.write(page.head());
+        out.write(fragment);
+        out.write(page.tail());
+    }
+
+    /**
+     * 外枠を返す（為替レート表の番号が変わっていれば作り直す）
+     */
+    private Shell shell(IWebExchange exchange) {
+        // 画面を作る前に番号を読む（作っている間に表が変わっても、次のリクエストで作り直される）
+        long version = rateSheetService.version();
+        Shell current = shell;
+        if (current != null && current.version() == version) {
+            return current;
+        }
+
+        Map<String, Object> variables = new HashMap<>();
+        variables.put("title", "干支判定結果");
+        variables.put("message", "ようこそ！");
+        try {
+            variables.put("scrapedExchangeRates", rateSheetService.get().text());
+            variables.put("showExchangeRates", true);
+        } catch (IllegalStateException e) {
+            variables.put("showExchangeRates", false);
+        }
+        byte[] html = templateEngine.process(TEMPLATE, new WebContext(exchange, LocaleContextHolder.getLocale(), variables))
+                .getBytes(StandardCharsets.UTF_8);
+
+        int at = indexOf(html, RESULT_MARKER);
+        if (at < 0) {
+            throw new IllegalStateException(TEMPLATE + ".html に判定結果の位置 " + new String(RESULT_MARKER, StandardCharsets.UTF_8) + " がありません");
+        }
+        byte[] head = new byte[at];
+        System.arraycopy(html, 0, head, 0, at);
+        byte[] tail = new byte[html.length - at];
+        System.arraycopy(html, at, tail, 0, tail.length);
+
+        Shell created = new Shell(version, head, tail);
+        shell = created;
+        return created;
+    }
+
+    /**
+     * 判定結果の部分だけを Thymeleaf で作る
+     */
+    private byte[] renderFragment(IWebExchange exchange, Map<String, Object> result) {
+        WebContext context = new WebContext(exchange, LocaleContextHolder.getLocale(), result);
+        return templateEngine.process(TEMPLATE, Set.of(FRAGMENT), context).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static int indexOf(byte[] html, byte[] marker) {
+        outer:
+        for (int i = 0, last = html.length - marker.length; i <= last; i++) {
+            for (int j = 0; j < marker.length; j++) {
+                if (html[i + j] != marker[j]) {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        return -1;
+    }
+
+    /**
+     * 判定結果なしで作った画面を、判定結果を入れる位置で2つに分けたもの
+     * @param version 作った時の為替レート表のスナップショット番号
+     * @param head    判定結果より前の HTML
+     * @param tail    判定結果より後の HTML（目印のコメントから始まる）
+     */
+    private record Shell(long version, byte[] head, byte[] tail) {
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * ===== ExchangeRateCachePropertiesTest クラス =====
+ * 最新レートキャッシュの設定値の検証と、再取得を始めるまでの時間の計算を確認するテスト
+ */
+class ExchangeRateCachePropertiesTest {
+
+    @Test
+    void refreshAfterIsAFractionOfTtl() {
+        assertEquals(Duration.ofMinutes(48), new ExchangeRateCacheProperties(Duration.ofHours(1), 100, 0.8).refreshAfter());
+        assertEquals(Duration.ofMillis(1), new ExchangeRateCacheProperties(Duration.ofMillis(1), 100, 0.5).refreshAfter());
+    }
+
+    @Test
+    void rejectsRefreshThresholdOutsideZeroToOne() {
+        for (double threshold : new double[] {0, -0.1, 1, 1.5, Double.NaN}) {
+            assertThrows(IllegalArgumentException.class,
+                    () -> new ExchangeRateCacheProperties(Duration.ofHours(1), 100, threshold));
+        }
+    }
+
+    @Test
+    void rejectsNonPositiveTtlAndMaxEntries() {
+        assertThrows(IllegalArgumentException.class, () -> new ExchangeRateCacheProperties(Duration.ZERO, 100, 0.8));
+        assertThrows(IllegalArgumentException.class, () -> new ExchangeRateCacheProperties(Duration.ofHours(1), 0, 0.8));
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.RequestEntity;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.resource.ResourceUrlProvider;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * ===== StaticResourceCacheHeadersTest クラス =====
+ * CSS のハッシュ付きの URL だけが1年間 immutable でキャッシュされ、
+ * ハッシュなしの URL は no-cache と ETag で毎回再検証されることを確認するテスト
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class StaticResourceCacheHeadersTest {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private ResourceUrlProvider resourceUrlProvider;
+
+    @Test
+    void versionedUrlIsImmutable() {
+        String versioned = resourceUrlProvider.getForLookupPath("/css/style.css");
+        assertNotEquals("/css/style.css", versioned);
+
+        ResponseEntity<String> response = restTemplate.getForEntity(versioned, String.class);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("max-age=31536000, public, immutable", response.getHeaders().getCacheControl());
+    }
+
+    @Test
+    void plainUrlIsRevalidatedWithEtag() {
+        ResponseEntity<String> response = restTemplate.getForEntity("/css/style.css", String.class);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("no-cache", response.getHeaders().getCacheControl());
+        String etag = response.getHeaders().getETag();
+        assertNotNull(etag);
+
+        ResponseEntity<String> revalidated = restTemplate.exchange(
+                RequestEntity.get("/css/style.css").header("If-None-Match", etag).build(), String.class);
+        assertEquals(HttpStatus.NOT_MODIFIED, revalidated.getStatusCode());
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.controller;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * ===== ExchangeRateUpstreamHitsTest クラス =====
+ * /api/exchange-history と /exchange が、外部APIに基準通貨ごとに1回しか通信しないことを確認するテスト
+ * 外部APIの代わりにローカルのスタブサーバー（HttpServer）を起動し、基準通貨ごとの通信回数を数える
+ * 全ての基準通貨のレートは JPY 基準の1回の取得から計算するため、JPY への1回だけになるはず
+ * （その1回は起動時の履歴の記録で、リクエストの処理中には通信しない）
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class ExchangeRateUpstreamHitsTest {
+
+    /** スタブサーバーが受けた通信の回数（基準通貨ごと） */
+    private static final Map<String, AtomicInteger> HITS = new ConcurrentHashMap<>();
+    private static final HttpServer UPSTREAM = startUpstream();
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @DynamicPropertySource
+    static void upstreamProperties(DynamicPropertyRegistry registry) {
+        registry.add("exchange.api.base-url",
+                () -> "http://localhost:" + UPSTREAM.getAddress().getPort() + "/v4");
+    }
+
+    @AfterAll
+    static void stopUpstream() {
+        UPSTREAM.stop(0);
+    }
+
+    @Test
+    void historyAndExchangePageFetchEachBaseOnce() throws InterruptedException {
+        awaitHistoryRecorded();
+        for (String base : new String[] {"USD", "EUR", "GBP", "CNY"}) {
+            ResponseEntity<String> history = restTemplate.getForEntity("/api/exchange-history?base=" + base, String.class);
+            assertEquals(HttpStatus.OK, history.getStatusCode());
+            assertTrue(history.getBody().contains("\"success\":true"), history.getBody());
+        }
+
+        ResponseEntity<String> page = restTemplate.getForEntity("/exchange", String.class);
+        assertEquals(HttpStatus.OK, page.getStatusCode());
+        assertTrue(page.getBody().contains("USD: 0.0067 JPY"), page.getBody());
+
+        // 同じ画面をもう一度開いても、キャッシュから返して通信しない
+        restTemplate.getForEntity("/exchange", String.class);
+        restTemplate.getForEntity("/api/exchange-history?base=USD", String.class);
+
+        assertEquals(Map.of("JPY", 1), hitCounts());
+    }
+
+    /**
+     * 起動時の履歴の記録が終わるまで待つ（それまでの /api/exchange-history は 503 と Retry-After を返す）
+     */
+    private void awaitHistoryRecorded() throws InterruptedException {
+        for (int i = 0; i < 100; i++) {
+            ResponseEntity<String> history = restTemplate.getForEntity("/api/exchange-history?base=JPY", String.class);
+            if (history.getStatusCode() != HttpStatus.SERVICE_UNAVAILABLE) {
+                return;
+            }
+            assertTrue(history.getHeaders().getFirst("Retry-After") != null, history.getHeaders().toString());
+            Thread.sleep(50);
+        }
+        throw new AssertionError("起動時の履歴の記録が終わりません");
+    }
+
+    private static Map<String, Integer> hitCounts() {
+        Map<String, Integer> counts = new ConcurrentHashMap<>();
+        HITS.forEach((base, count) -> counts.put(base, count.get()));
+        return counts;
+    }
+
+    /**
+     * 外部API（/v4/latest/{base}）と同じ形の JSON を返すスタブサーバーを起動する
+     */
+    private static HttpServer startUpstream() {
+        try {
+            HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            server.createContext("/v4/latest/", exchange -> {
+                String path = exchange.getRequestURI().getPath();
+                String base = path.substring(path.lastIndexOf('/') + 1).toUpperCase();
+                HITS.computeIfAbsent(base, key -> new AtomicInteger()).incrementAndGet();
+
+                byte[] body = ("{\"base\":\"" + base + "\",\"date\":\"2024-01-15\",\"time_last_updated\":1705276801,"
+                        + "\"rates\":{\"JPY\":1,\"USD\":0.00672,\"EUR\":0.00615,\"GBP\":0.00529,"
+                        + "\"CNY\":0.0482,\"KRW\":8.97,\"AUD\":0.0102,\"NZD\":0.0110,\"CAD\":0.00905,"
+                        + "\"CHF\":0.00578,\"HKD\":0.0525,\"SGD\":0.00901}}").getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().set("Content-Type", "application/json");
+                exchange.sendResponseHeaders(200, body.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            });
+            server.start();
+            return server;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.controller;
+
+import com.example.service.ZodiacBatchProcessor;
+import com.example.service.ZodiacCalculator;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.boot.info.BuildProperties;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * ===== ZodiacBatchBinaryTest クラス =====
+ * バイナリのまとめて判定する API が、結果を送り始めた後の失敗を
+ * トレーラーで知らせ、トレーラーを送れない場合は結果の後ろのエラーの行で知らせることを確認するテスト
+ * （長さを指定しない本文の最後が半端な場合。送り始めた結果は 1990 → 馬、2024 → 竜 の2件）
+ */
+class ZodiacBatchBinaryTest {
+
+    private final HomeController controller = new HomeController(null, null, null, null, null, null,
+            new StaticListableBeanFactory().getBeanProvider(BuildProperties.class));
+
+    @Test
+    void reportsFailureAfterCommitInTrailer() throws IOException {
+        AtomicReference<Supplier<Map<String, String>>> trailer = new AtomicReference<>();
+        MockHttpServletResponse response = new MockHttpServletResponse() {
+            @Override
+            public void setTrailerFields(Supplier<Map<String, String>> supplier) {
+                trailer.set(supplier);
+            }
+        };
+
+        controller.zodiacBatchBinary(partialInput(), new MockHttpServletRequest("POST", "/api/zodiac/batch"), response);
+
+        assertEquals("X-Batch-Error", response.getHeader("Trailer"));
+        assertEquals(Map.of("X-Batch-Error", "index=2"), trailer.get().get());
+        assertArrayEquals(results(), response.getContentAsByteArray());
+    }
+
+    @Test
+    void writesErrorFrameWhenTrailersAreNotSupported() throws IOException {
+        MockHttpServletResponse response = new MockHttpServletResponse() {
+            @Override
+            public void setTrailerFields(Supplier<Map<String, String>> supplier) {
+                // HTTP/1.0 などトレーラーを送れない接続では、サーブレットコンテナが IllegalStateException を投げる
+                throw new IllegalStateException("trailers are not supported");
+            }
+        };
+
+        controller.zodiacBatchBinary(partialInput(), new MockHttpServletRequest("POST", "/api/zodiac/batch"), response);
+
+        assertNull(response.getHeader("Trailer"));
+        byte[] content = response.getContentAsByteArray();
+        byte[] results = results();
+        assertArrayEquals(results, Arrays.copyOf(content, results.length));
+        assertEquals((byte) ZodiacBatchProcessor.ERROR_FRAME, content[results.length]);
+        String error = new String(content, results.length + 1, content.length - results.length - 1, StandardCharsets.UTF_8);
+        assertTrue(error.startsWith("{\"error\":") && error.endsWith(",\"index\":2}\n"), error);
+    }
+
+    /**
+     * 2件の西暦と、最後に半端な2バイト
+     */
+    private static ByteArrayInputStream partialInput() {
+        ByteBuffer years = ByteBuffer.allocate(2 * Integer.BYTES + 2);
+        years.putInt(1990).putInt(2024).put((byte) 0).put((byte) 1);
+        return new ByteArrayInputStream(years.array());
+    }
+
+    private static byte[] results() {
+        return new byte[] {(byte) ZodiacCalculator.index(1990), (byte) ZodiacCalculator.index(2024)};
+    }
+}
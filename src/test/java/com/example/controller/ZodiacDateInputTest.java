@@ -0,0 +1,41 @@
+package com.example.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * ===== ZodiacDateInputTest クラス =====
+ * 干支の API（/api/zodiac、/api/sexagenary）が、未入力の date（?date=）を同じ規則で扱うことを確認するテスト
+ * 未入力の date は指定なしとして year で判定し、year もなければ 400 を返す（500 にはならない）
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class ZodiacDateInputTest {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Test
+    void emptyDateFallsBackToYear() {
+        for (String path : new String[] {"/api/zodiac", "/api/sexagenary"}) {
+            ResponseEntity<String> response = restTemplate.getForEntity(path + "?date=&year=2024", String.class);
+            assertEquals(HttpStatus.OK, response.getStatusCode(), path);
+            assertTrue(response.getBody().contains("甲辰"), response.getBody());
+        }
+    }
+
+    @Test
+    void emptyDateWithoutYearIsABadRequest() {
+        for (String path : new String[] {"/api/zodiac", "/api/sexagenary"}) {
+            ResponseEntity<String> response = restTemplate.getForEntity(path + "?date=", String.class);
+            assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode(), path);
+            assertTrue(response.getBody().contains("\"success\":false"), response.getBody());
+        }
+    }
+}
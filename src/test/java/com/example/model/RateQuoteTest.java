@@ -0,0 +1,59 @@
+package com.example.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * ===== RateQuoteTest クラス =====
+ * RateQuote の表示が、置き換える前の String.format("%.4f") と同じ桁になることを確認するテスト
+ */
+class RateQuoteTest {
+
+    @Test
+    void roundsHalfUpOnDecimalDigitsLikeStringFormat() {
+        // rate * 10000 が .5 のわずかに下になる値（Math.round では切り捨てられていた）
+        assertEquals("0.0057", format(0.00565));
+        assertEquals("0.0015", format(0.00145));
+        assertEquals("0.0002", format(0.00015));
+        assertEquals("1.0005", format(1.00045));
+        assertEquals("0.0067", format(0.00672));
+        assertEquals("148.5000", format(148.5));
+        assertEquals("0.0000", format(0.0));
+    }
+
+    @Test
+    void matchesStringFormatForJpyBasedRates() {
+        SplittableRandom random = new SplittableRandom(42);
+        for (int i = 0; i < 1_000_000; i++) {
+            // JPY 基準のレート（0.0001〜200 程度）と、小数点以下5桁ちょうどの値
+            double rate = i % 2 == 0
+                    ? random.nextDouble() * Math.pow(10, random.nextInt(-4, 3))
+                    : random.nextLong(0, 10_000_000) / 100_000.0;
+            assertEquals(String.format(Locale.ROOT, "%.4f", rate), format(rate), "rate=" + rate);
+        }
+    }
+
+    @Test
+    void parseRoundsFifthDecimalHalfUp() {
+        assertEquals(1_485_000, RateQuote.parseScaled("148.50"));
+        assertEquals(12_345_000, RateQuote.parseScaled(" 1,234.5 "));
+        assertEquals(57, RateQuote.parseScaled("0.00565"));
+        assertEquals(56, RateQuote.parseScaled("0.00564999"));
+        assertThrows(NumberFormatException.class, () -> RateQuote.parseScaled("abc"));
+    }
+
+    @Test
+    void rejectsNonNumericRates() {
+        assertThrows(IllegalArgumentException.class, () -> RateQuote.of("USD", Double.NaN));
+        assertThrows(IllegalArgumentException.class, () -> RateQuote.of("USD", Double.POSITIVE_INFINITY));
+    }
+
+    private static String format(double rate) {
+        return RateQuote.of("USD", rate).appendRate(new StringBuilder()).toString();
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.scraping;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * ===== FileRateSheetSourceTest クラス =====
+ * ファイルの更新日時と内容のハッシュが両方変わった時だけ、為替レート表を読み込み直すことを確認するテスト
+ */
+class FileRateSheetSourceTest {
+
+    @Test
+    void rereadsOnlyWhenContentChanges() throws IOException {
+        Path file = Files.createTempFile("rate-sheet", ".html");
+        try {
+            Files.writeString(file, "<table>1</table>");
+            FileRateSheetSource source = new FileRateSheetSource(file);
+            assertEquals("<table>1</table>", source.fetch().toString());
+
+            // 更新日時が同じなら読み込まない
+            assertNull(source.fetch());
+
+            // 更新日時だけが変わった（内容は同じ）場合も読み込み直さない
+            touch(file, 60_000);
+            assertNull(source.fetch());
+
+            Files.writeString(file, "<table>2</table>");
+            touch(file, 120_000);
+            CharSequence changed = source.fetch();
+            assertTrue(changed != null && changed.toString().equals("<table>2</table>"), String.valueOf(changed));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static void touch(Path file, long plusMillis) throws IOException {
+        Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis() + plusMillis));
+    }
+}
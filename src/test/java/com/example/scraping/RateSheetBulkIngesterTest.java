@@ -0,0 +1,84 @@
+package com.example.scraping;
+
+import com.example.model.BulkIngestResult;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * ===== RateSheetBulkIngesterTest クラス =====
+ * まとめて取り込む処理が bulk-root の外のファイルを読まないことを確認するテスト
+ * （「..」を含むパスと、bulk-root の中に置いた外を指すシンボリックリンク）
+ */
+class RateSheetBulkIngesterTest {
+
+    private static final String SHEET = "<table><tr><th>通貨</th><th>レート（JPY）</th></tr>"
+            + "<tr><td>USD</td><td class=\"rate\">148.50</td></tr></table>";
+
+    @Test
+    void ingestsSheetsInsideRoot() throws IOException {
+        Path base = Files.createTempDirectory("bulk-ingest");
+        try {
+            Path root = Files.createDirectories(base.resolve("root/branches"));
+            Files.writeString(root.resolve("tokyo.html"), SHEET);
+            Files.writeString(root.resolve("osaka.html"), SHEET);
+
+            RateSheetBulkIngester ingester = new RateSheetBulkIngester(base.resolve("root"), 2);
+            try {
+                BulkIngestResult result = ingester.ingestDirectory("branches");
+                assertEquals(2, result.sheets().size());
+                assertEquals(1, result.rates().size());
+                assertEquals(2, result.rates().get(0).count());
+                assertEquals(1, ingester.ingestFiles(List.of("branches/tokyo.html")).sheets().size());
+            } finally {
+                ingester.destroy();
+            }
+        } finally {
+            delete(base);
+        }
+    }
+
+    @Test
+    void rejectsPathsAndLinksLeadingOutsideRoot() throws IOException {
+        Path base = Files.createTempDirectory("bulk-ingest");
+        try {
+            Path root = Files.createDirectories(base.resolve("root"));
+            Path secret = Files.writeString(base.resolve("secret.html"), SHEET);
+            Path outside = Files.createDirectories(base.resolve("outside"));
+            Files.writeString(outside.resolve("other.html"), SHEET);
+            Files.createSymbolicLink(root.resolve("link.html"), secret);
+            Files.createSymbolicLink(root.resolve("linked-dir"), outside);
+            Path mixed = Files.createDirectories(root.resolve("mixed"));
+            Files.writeString(mixed.resolve("ok.html"), SHEET);
+            Files.createSymbolicLink(mixed.resolve("escape.html"), secret);
+
+            RateSheetBulkIngester ingester = new RateSheetBulkIngester(root, 2);
+            try {
+                assertThrows(IllegalArgumentException.class, () -> ingester.ingestFiles(List.of("../secret.html")));
+                assertThrows(IllegalArgumentException.class, () -> ingester.ingestFiles(List.of("link.html")));
+                assertThrows(IllegalArgumentException.class, () -> ingester.ingestDirectory("linked-dir"));
+                assertThrows(IllegalArgumentException.class, () -> ingester.ingestDirectory("mixed"));
+            } finally {
+                ingester.destroy();
+            }
+        } finally {
+            delete(base);
+        }
+    }
+
+    private static void delete(Path base) throws IOException {
+        try (Stream<Path> paths = Files.walk(base)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.service;
+
+import com.example.config.ExchangeRateCacheProperties;
+import com.example.model.Currencies;
+import com.example.model.LatestRates;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * ===== ExchangeRateHistoryRecorderTest クラス =====
+ * 履歴の記録がキャッシュ済みの古いレートを使わずに外部APIから取得し、取得した値でキャッシュも新しくすることを確認するテスト
+ */
+class ExchangeRateHistoryRecorderTest {
+
+    @Test
+    void recordsFreshRatesAndReplacesTheCachedEntry() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        LatestRates yesterday = rates(LocalDate.of(2024, 1, 14), 1.0);
+        LatestRates today = rates(LocalDate.of(2024, 1, 15), 2.0);
+        AtomicInteger loads = new AtomicInteger();
+        ExchangeRateService service = new ExchangeRateService(null, "http://localhost", null, registry) {
+            @Override
+            public CompletableFuture<LatestRates> getLatestRatesAsync(String base) {
+                loads.incrementAndGet();
+                return CompletableFuture.completedFuture(today);
+            }
+        };
+        LatestRatesCache cache = new LatestRatesCache(service,
+                new ExchangeRateCacheProperties(Duration.ofHours(1), 100, 0.8), registry);
+        ExchangeRateHistoryStore store = new ExchangeRateHistoryStore(30);
+        cache.put(yesterday);
+
+        new ExchangeRateHistoryRecorder(service, cache, store).recordNow().join();
+
+        assertEquals(1, loads.get());
+        assertEquals(LocalDate.of(2024, 1, 15),
+                store.read(CrossRateService.AUTHORITATIVE_BASE, 30).orElseThrow().dates().get(0));
+        assertTrue(cache.getAsync(CrossRateService.AUTHORITATIVE_BASE).join() == today);
+        assertEquals(1, loads.get());
+    }
+
+    private static LatestRates rates(LocalDate date, double rate) {
+        double[] values = new double[Currencies.count()];
+        Arrays.fill(values, rate);
+        return new LatestRates(CrossRateService.AUTHORITATIVE_BASE, date, Instant.EPOCH, values);
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.service;
+
+import com.example.config.ExchangeRateCacheProperties;
+import com.example.model.LatestRates;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * ===== LatestRatesCacheTest クラス =====
+ * 取得中の基準通貨への同時の呼び出しが1回の通信を共有し、その数が exchange.upstream.coalesced に記録されることを確認するテスト
+ */
+class LatestRatesCacheTest {
+
+    @Test
+    void concurrentCallersJoinTheLoadInFlight() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        CompletableFuture<LatestRates> upstream = new CompletableFuture<>();
+        AtomicInteger loads = new AtomicInteger();
+        ExchangeRateService service = new ExchangeRateService(null, "http://localhost", null, registry) {
+            @Override
+            public CompletableFuture<LatestRates> getLatestRatesAsync(String base) {
+                loads.incrementAndGet();
+                return upstream;
+            }
+        };
+        LatestRatesCache cache = new LatestRatesCache(service,
+                new ExchangeRateCacheProperties(Duration.ofHours(1), 100, 0.8), registry);
+
+        // 1件目が取得を始め、その応答を待つ間に9件が同時に呼び出す
+        CompletableFuture<LatestRates> first = cache.getAsync("JPY");
+        int joiners = 9;
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<CompletableFuture<LatestRates>>> joined = new ArrayList<>();
+        try (ExecutorService callers = Executors.newFixedThreadPool(joiners)) {
+            for (int i = 0; i < joiners; i++) {
+                joined.add(callers.submit(() -> {
+                    start.await();
+                    return cache.getAsync("JPY");
+                }));
+            }
+            start.countDown();
+        }
+
+        LatestRates rates = new LatestRates("JPY", LocalDate.of(2024, 1, 15), Instant.EPOCH, new double[0]);
+        upstream.complete(rates);
+        assertTrue(first.join() == rates);
+        for (Future<CompletableFuture<LatestRates>> result : joined) {
+            assertTrue(result.get().join() == rates);
+        }
+
+        assertEquals(1, loads.get());
+        assertEquals((double) joiners, registry.get("exchange.upstream.coalesced").counter().count());
+
+        // 取得が終わった後の読み出しはキャッシュから返すだけで、相乗りには数えない
+        cache.getAsync("JPY").join();
+        assertEquals((double) joiners, registry.get("exchange.upstream.coalesced").counter().count());
+    }
+}
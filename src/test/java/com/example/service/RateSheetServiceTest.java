@@ -0,0 +1,41 @@
+package com.example.service;
+
+import com.example.scraping.RateSheetSource;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * ===== RateSheetServiceTest クラス =====
+ * 起動時（afterPropertiesSet）に、スケジュール実行を待たずに為替レート表を読み込むことを確認するテスト
+ */
+class RateSheetServiceTest {
+
+    private static final String SHEET = "<table><tr><th>通貨</th><th>レート（JPY）</th></tr>"
+            + "<tr><td>USD</td><td class=\"rate\">148.50</td></tr></table>";
+
+    @Test
+    void scrapesOnceBeforeTheFirstScheduledRun() {
+        List<Object> events = new ArrayList<>();
+        RateSheetService service = new RateSheetService(new RateSheetSource() {
+            @Override
+            public String description() {
+                return "test";
+            }
+
+            @Override
+            public CharSequence fetch() {
+                return SHEET;
+            }
+        }, events::add);
+
+        service.afterPropertiesSet();
+
+        assertEquals(1, service.version());
+        assertEquals("USD", service.get().rows().get(0).currency());
+        assertEquals(1, events.size());
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.service;
+
+import com.example.model.DateSexagenary;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * ===== SexagenaryCalendarTest クラス =====
+ * 入力された日付の文字列から干支を求める処理（フォームと API で共通）の、未入力と不正な入力の扱いを確認するテスト
+ */
+class SexagenaryCalendarTest {
+
+    @Test
+    void blankDateMeansNoDate() {
+        assertTrue(SexagenaryCalendar.parseDate(null).isEmpty());
+        assertTrue(SexagenaryCalendar.parseDate("").isEmpty());
+        assertTrue(SexagenaryCalendar.parseDate("  ").isEmpty());
+    }
+
+    @Test
+    void dateBeforeLunarNewYearBelongsToThePreviousYear() {
+        DateSexagenary before = SexagenaryCalendar.parseDate("2024-02-09").orElseThrow();
+        assertEquals(2023, before.lunarYear());
+        assertEquals("癸卯", before.year().name());
+
+        DateSexagenary after = SexagenaryCalendar.parseDate("2024-02-10").orElseThrow();
+        assertEquals(LocalDate.of(2024, 2, 10), after.date());
+        assertEquals(2024, after.lunarYear());
+        assertEquals(LocalDate.of(2024, 2, 10), after.lunarNewYear());
+        assertEquals("甲辰", after.year().name());
+        assertEquals(SexagenaryCalendar.ofDay(after.date()), after.day());
+    }
+
+    @Test
+    void rejectsMalformedAndOutOfRangeDates() {
+        assertThrows(DateTimeParseException.class, () -> SexagenaryCalendar.parseDate("2024/02/10"));
+        assertThrows(IllegalArgumentException.class, () -> SexagenaryCalendar.parseDate("1899-12-31"));
+    }
+}
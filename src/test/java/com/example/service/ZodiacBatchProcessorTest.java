@@ -0,0 +1,88 @@
+package com.example.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * ===== ZodiacBatchProcessorTest クラス =====
+ * まとめて判定する処理の出力と、読めない入力があった場合に何件目かを知らせることを確認するテスト
+ */
+class ZodiacBatchProcessorTest {
+
+    @Test
+    void classifiesNdjsonNumbersAndObjects() throws IOException {
+        String output = ndjson("1990\n{\"year\":2024,\"note\":\"x\"}\n-1\n");
+        assertEquals("{\"year\":1990,\"zodiac\":\"馬\"}\n"
+                + "{\"year\":2024,\"zodiac\":\"竜\"}\n"
+                + "{\"year\":-1,\"zodiac\":\"羊\"}\n", output);
+    }
+
+    @Test
+    void reportsIndexOfUnreadableNdjsonLine() {
+        assertEquals(2, ndjsonFailure("1990\n2024\n{\"year\":\n").index());
+        assertEquals(1, ndjsonFailure("1990\n\"abc\"\n2024\n").index());
+        assertEquals(1, ndjsonFailure("1990\n{\"month\":1}\n").index());
+        // int に収まらない数値
+        assertEquals(0, ndjsonFailure("99999999999\n").index());
+    }
+
+    @Test
+    void writesResultsBeforeTheUnreadableLine() throws IOException {
+        StringBuilder input = new StringBuilder();
+        for (int i = 0; i < ZodiacBatchProcessor.CHUNK + 3; i++) {
+            input.append(2000 + i % 12).append('\n');
+        }
+        input.append("}\n");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ZodiacBatchProcessor.InvalidInputException error = assertThrows(ZodiacBatchProcessor.InvalidInputException.class,
+                () -> ZodiacBatchProcessor.classifyNdjson(stream(input.toString()), out));
+        assertEquals(ZodiacBatchProcessor.CHUNK + 3, error.index());
+
+        ZodiacBatchProcessor.writeError(error, out);
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(ZodiacBatchProcessor.CHUNK + 4, lines.length);
+        assertTrue(lines[lines.length - 1].startsWith("{\"error\":"), lines[lines.length - 1]);
+        assertTrue(lines[lines.length - 1].endsWith(",\"index\":" + (ZodiacBatchProcessor.CHUNK + 3) + "}"),
+                lines[lines.length - 1]);
+    }
+
+    @Test
+    void classifiesBinaryAndRejectsTrailingPartialRecord() throws IOException {
+        ByteBuffer years = ByteBuffer.allocate(3 * Integer.BYTES + 2);
+        years.putInt(1990).putInt(2024).putInt(Integer.MIN_VALUE).put((byte) 0).put((byte) 1);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ZodiacBatchProcessor.InvalidInputException error = assertThrows(ZodiacBatchProcessor.InvalidInputException.class,
+                () -> ZodiacBatchProcessor.classifyBinary(new ByteArrayInputStream(years.array()), out));
+        assertEquals(3, error.index());
+        assertArrayEquals(new byte[] {
+                (byte) ZodiacCalculator.index(1990),
+                (byte) ZodiacCalculator.index(2024),
+                (byte) ZodiacCalculator.index(Integer.MIN_VALUE)}, out.toByteArray());
+    }
+
+    private static String ndjson(String input) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ZodiacBatchProcessor.classifyNdjson(stream(input), out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    private static ZodiacBatchProcessor.InvalidInputException ndjsonFailure(String input) {
+        return assertThrows(ZodiacBatchProcessor.InvalidInputException.class,
+                () -> ZodiacBatchProcessor.classifyNdjson(stream(input), new ByteArrayOutputStream()));
+    }
+
+    private static ByteArrayInputStream stream(String input) {
+        return new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * ===== ZodiacClassificationTest クラス =====
+ * 干支をまとめて判定する2通りの実装（1件ずつ・Vector API）と、除算も分岐も使わない計算が同じ結果になることを確認するテスト
+ * （テストは --add-modules jdk.incubator.vector 付きで実行する: build.gradle）
+ */
+class ZodiacClassificationTest {
+
+    @Test
+    void allImplementationsAgreeOnRandomAndExtremeYears() {
+        int[] years = new int[1_000_000];
+        SplittableRandom random = new SplittableRandom(2024);
+        for (int i = 0; i < years.length; i++) {
+            years[i] = random.nextInt();
+        }
+        // int の両端と、0・負の年の前後（floorMod の境目）
+        int[] extremes = {Integer.MIN_VALUE, Integer.MIN_VALUE + 1, Integer.MAX_VALUE - 1, Integer.MAX_VALUE,
+                -13, -12, -1, 0, 1, 3, 4, 5, 15, 16, 1900, 2024};
+        System.arraycopy(extremes, 0, years, 0, extremes.length);
+
+        byte[] scalar = new byte[years.length];
+        byte[] vector = new byte[years.length];
+        ZodiacCalculator.classifyScalar(years, 0, years.length, scalar);
+        VectorZodiacClassifier.classify(years, 0, years.length, vector);
+
+        assertArrayEquals(scalar, vector, "VectorZodiacClassifier");
+        for (int i = 0; i < extremes.length; i++) {
+            assertEquals(Math.floorMod(extremes[i] - 4L, 12), scalar[i], "year=" + extremes[i]);
+            assertEquals(scalar[i], ZodiacCalculator.indexBranchFree(extremes[i]), "indexBranchFree year=" + extremes[i]);
+        }
+    }
+
+    @Test
+    void vectorClassifierHandlesRangesThatDoNotFillAVector() {
+        int[] years = new int[257];
+        for (int i = 0; i < years.length; i++) {
+            years[i] = 1900 + i * 7;
+        }
+        for (int from = 0; from < 5; from++) {
+            for (int to = from; to <= years.length; to += 31) {
+                byte[] expected = new byte[years.length];
+                byte[] actual = new byte[years.length];
+                ZodiacCalculator.classifyScalar(years, from, to, expected);
+                VectorZodiacClassifier.classify(years, from, to, actual);
+                assertArrayEquals(expected, actual, "from=" + from + " to=" + to);
+            }
+        }
+    }
+
+    @Test
+    void classifyUsesTheVectorApiWhenTheModuleIsPresent() {
+        assertTrue(ZodiacCalculator.vectorized(), "--add-modules jdk.incubator.vector が付いていません");
+    }
+}